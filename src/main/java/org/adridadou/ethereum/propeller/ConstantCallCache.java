@@ -0,0 +1,113 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.values.EthAddress;
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * LRU cache of constant call results for the current block.
+ * All the results are dropped when a new block arrives. Results computed while the head moved are not stored.
+ * The keys are also indexed by contract so that invalidating a contract only touches its own results.
+ * This code is released under Apache 2 license
+ */
+class ConstantCallCache {
+    private final int maxSize;
+    private final Map<CacheKey, EthData> results;
+    private final Map<EthAddress, Set<CacheKey>> keysByContract = new HashMap<>();
+    private long currentBlock;
+
+    ConstantCallCache(final int maxSize, final long currentBlock) {
+        this.maxSize = maxSize;
+        this.currentBlock = currentBlock;
+        this.results = new LinkedHashMap<CacheKey, EthData>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, EthData> eldest) {
+                if (size() > ConstantCallCache.this.maxSize) {
+                    unindex(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized long getCurrentBlock() {
+        return currentBlock;
+    }
+
+    synchronized Optional<EthData> get(EthAddress sender, EthAddress contract, EthData data) {
+        return Optional.ofNullable(results.get(new CacheKey(sender, contract, data)));
+    }
+
+    synchronized void put(EthAddress sender, EthAddress contract, EthData data, EthData result, long blockNumber) {
+        if (blockNumber == currentBlock) {
+            CacheKey key = new CacheKey(sender, contract, data);
+            keysByContract.computeIfAbsent(contract, address -> new HashSet<>()).add(key);
+            results.put(key, result);
+        }
+    }
+
+    synchronized void onBlock(long blockNumber) {
+        if (blockNumber != currentBlock) {
+            currentBlock = blockNumber;
+            results.clear();
+            keysByContract.clear();
+        }
+    }
+
+    synchronized void invalidate(EthAddress contract) {
+        Set<CacheKey> keys = keysByContract.remove(contract);
+        if (keys != null) {
+            keys.forEach(results::remove);
+        }
+    }
+
+    synchronized int size() {
+        return results.size();
+    }
+
+    private void unindex(CacheKey key) {
+        Set<CacheKey> keys = keysByContract.get(key.contract);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByContract.remove(key.contract);
+        }
+    }
+
+    private static final class CacheKey {
+        private final EthAddress sender;
+        private final EthAddress contract;
+        private final EthData data;
+        private final int hashCode;
+
+        private CacheKey(EthAddress sender, EthAddress contract, EthData data) {
+            this.sender = sender;
+            this.contract = contract;
+            this.data = data;
+            this.hashCode = Objects.hash(sender, contract, data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return hashCode == that.hashCode && contract.equals(that.contract) && data.equals(that.data) && sender.equals(that.sender);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.values.ConstantCall;
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.adridadou.ethereum.propeller.values.EthValue.wei;
+
+/**
+ * Collects constant calls from one or more contract proxies and executes them in one backend request.
+ * <pre>
+ * ContractBatch batch = ethereum.batch();
+ * CompletableFuture&lt;BigInteger&gt; balance = batch.add(token, t -&gt; t.balanceOf(address));
+ * batch.execute();
+ * </pre>
+ * A batch is meant to be built and executed by a single thread.
+ * This code is released under Apache 2 license
+ */
+public class ContractBatch {
+    private final EthereumProxy ethereumProxy;
+    private final List<BatchEntry> entries = new ArrayList<>();
+
+    ContractBatch(EthereumProxy ethereumProxy) {
+        this.ethereumProxy = ethereumProxy;
+    }
+
+    /**
+     * Adds a call to the batch. The call is recorded on the contract proxy and not executed until {@link #execute()} is called.
+     *
+     * @param contract The contract proxy, created by {@link EthereumFacade}
+     * @param call     The call to record. It has to call exactly one constant function of the proxy and return its result
+     * @param <T>      The contract interface type
+     * @param <R>      The result type
+     * @return The future result, completed when the batch is executed
+     */
+    @SuppressWarnings("unchecked") // the recorder implements the interfaces of the contract, and the decoded result has the type returned by the call
+    public <T, R> CompletableFuture<R> add(T contract, Function<T, R> call) {
+        EthereumContractInvocationHandler handler = getHandler(contract);
+        CallRecorder recorder = new CallRecorder();
+        call.apply((T) Proxy.newProxyInstance(contract.getClass().getClassLoader(), contract.getClass().getInterfaces(), recorder));
+        if (recorder.method == null) {
+            throw new EthereumApiException("no contract function has been called while recording the batch call");
+        }
+
+        SmartContractMethod contractMethod = handler.getMethod(recorder.method);
+        if (contractMethod == null || contractMethod.getCallType() != SmartContractMethod.CallType.Constant) {
+            throw new EthereumApiException("only constant calls can be batched. " + recorder.method.getName() + " is not a constant call");
+        }
+
+        Object[] arguments = recorder.args == null ? new Object[0] : recorder.args;
+        ConstantCall constantCall = handler.getContract().prepareConstCall(contractMethod.getFunction(), wei(0), arguments);
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        entries.add(new BatchEntry(handler.getContract(), contractMethod, constantCall, result));
+        return (CompletableFuture<R>) (CompletableFuture<?>) result;
+    }
+
+    /**
+     * @return the number of calls in the batch
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Executes all the calls that have been added and completes their futures. The batch is empty afterwards.
+     * If the backend fails or does not return one result per call, every future completes exceptionally.
+     */
+    public void execute() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<BatchEntry> toExecute = new ArrayList<>(entries);
+        entries.clear();
+
+        List<EthData> results;
+        try {
+            results = ethereumProxy.constantCalls(toExecute.stream().map(entry -> entry.call).collect(Collectors.toList()));
+        } catch (RuntimeException ex) {
+            toExecute.forEach(entry -> entry.result.completeExceptionally(ex));
+            return;
+        }
+        if (results == null || results.size() != toExecute.size()) {
+            EthereumApiException error = new EthereumApiException("the backend returned " + (results == null ? 0 : results.size()) + " results for " + toExecute.size() + " calls");
+            toExecute.forEach(entry -> entry.result.completeExceptionally(error));
+            return;
+        }
+
+        for (int i = 0; i < toExecute.size(); i++) {
+            toExecute.get(i).complete(results.get(i));
+        }
+    }
+
+    private EthereumContractInvocationHandler getHandler(Object contract) {
+        if (contract != null && Proxy.isProxyClass(contract.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(contract);
+            if (handler instanceof EthereumContractInvocationHandler) {
+                return (EthereumContractInvocationHandler) handler;
+            }
+        }
+        throw new EthereumApiException("only contract proxies created by EthereumFacade can be used in a batch");
+    }
+
+    private static final class BatchEntry {
+        private final SmartContract contract;
+        private final SmartContractMethod method;
+        private final ConstantCall call;
+        private final CompletableFuture<Object> result;
+
+        private BatchEntry(SmartContract contract, SmartContractMethod method, ConstantCall call, CompletableFuture<Object> result) {
+            this.contract = contract;
+            this.method = method;
+            this.call = call;
+            this.result = result;
+        }
+
+        private void complete(EthData data) {
+            try {
+                result.complete(contract.decodeConstResult(method.getFunction(), method.getResultType(), data));
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private static final class CallRecorder implements InvocationHandler {
+        private Method method;
+        private Object[] args;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getDeclaringClass().equals(Object.class)) {
+                throw new EthereumApiException("Object methods cannot be recorded in a batch");
+            }
+            if (this.method != null) {
+                throw new EthereumApiException("only one contract function can be called per batch call");
+            }
+            this.method = method;
+            this.args = args;
+            return defaultValue(method.getReturnType());
+        }
+
+        private Object defaultValue(Class<?> type) {
+            if (!type.isPrimitive() || Void.TYPE.equals(type)) {
+                return null;
+            }
+            if (Boolean.TYPE.equals(type)) {
+                return false;
+            }
+            if (Character.TYPE.equals(type)) {
+                return (char) 0;
+            }
+            if (Long.TYPE.equals(type)) {
+                return 0L;
+            }
+            if (Float.TYPE.equals(type)) {
+                return 0f;
+            }
+            if (Double.TYPE.equals(type)) {
+                return 0d;
+            }
+            if (Short.TYPE.equals(type)) {
+                return (short) 0;
+            }
+            if (Byte.TYPE.equals(type)) {
+                return (byte) 0;
+            }
+            return 0;
+        }
+    }
+}
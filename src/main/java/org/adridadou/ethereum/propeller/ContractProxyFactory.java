@@ -0,0 +1,193 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.converters.future.CompletableFutureConverter;
+import org.adridadou.ethereum.propeller.converters.future.FutureConverter;
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.solidity.SolidityContractDetails;
+import org.adridadou.ethereum.propeller.solidity.SolidityFunction;
+import org.adridadou.ethereum.propeller.values.EthAccount;
+import org.adridadou.ethereum.propeller.values.EthAddress;
+import org.adridadou.ethereum.propeller.values.EthData;
+import org.adridadou.ethereum.propeller.values.GasUsage;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.lang.reflect.Proxy.newProxyInstance;
+
+
+/**
+ * Verifies contract interfaces against their ABI and creates the contract proxies.
+ * This code is released under Apache 2 license
+ */
+class ContractProxyFactory {
+    private static final int MAX_TABLES_PER_INTERFACE = 8;
+
+    private final EthereumProxy ethereumProxy;
+    private final ClassValue<Map<String, DispatchTable>> dispatchTables = new ClassValue<Map<String, DispatchTable>>() {
+        @Override
+        protected Map<String, DispatchTable> computeValue(Class<?> type) {
+            return Collections.synchronizedMap(new DispatchTables());
+        }
+    };
+    private final List<FutureConverter> futureConverters = new CopyOnWriteArrayList<>();
+    private final AtomicInteger converterVersion = new AtomicInteger();
+
+    ContractProxyFactory(EthereumProxy ethereumProxy) {
+        this.ethereumProxy = ethereumProxy;
+        this.futureConverters.add(new CompletableFutureConverter());
+    }
+
+    private Optional<FutureConverter> findConverter(Class type) {
+        return futureConverters.stream()
+                .filter(converter -> converter.isFutureType(type) || converter.isPayableType(type)).findFirst();
+    }
+
+    /**
+     * Creates the proxy with its own invocation handler. The handler holds the contract and its dispatch table,
+     * so no registry is needed to find them back and everything is garbage collected with the proxy
+     */
+    <T> T createProxy(Class<T> contractInterface, SolidityContractDetails contract, EthAddress address, EthAccount account) {
+        if (address.isEmpty()) {
+            throw new EthereumApiException("the contract address cannot be empty");
+        }
+        SmartContract smartContract = ethereumProxy.getSmartContract(contract, address, account);
+        EthereumContractInvocationHandler handler = new EthereumContractInvocationHandler(smartContract, this, contract, contractInterface,
+                getDispatchTable(smartContract, contract, contractInterface));
+        return (T) newProxyInstance(contractInterface.getClassLoader(), new Class[]{contractInterface}, handler);
+    }
+
+    /**
+     * The dispatch table only depends on the interface, the ABI and the registered codecs and converters. It is verified and built
+     * for the first proxy and then shared by every other proxy of the same interface and ABI, whatever their address or account.
+     * Registering a codec or a converter makes the tables stale, each proxy then gets a new table on its next call.
+     * The tables are kept in a ClassValue so that they do not prevent the interface from being unloaded, and only the tables of
+     * the last few ABIs are kept for each interface
+     */
+    DispatchTable getDispatchTable(SmartContract smartContract, SolidityContractDetails contract, Class<?> contractInterface) {
+        Map<String, DispatchTable> tables = dispatchTables.get(contractInterface);
+        DispatchTable table = tables.get(contract.getAbi());
+        if (table == null || !isCurrent(table)) {
+            int registryVersion = ethereumProxy.getRegistryVersion();
+            int currentConverterVersion = converterVersion.get();
+            table = new DispatchTable(createDispatchTable(verifyContract(smartContract, contractInterface)), registryVersion, currentConverterVersion);
+            tables.put(contract.getAbi(), table);
+        }
+        return table;
+    }
+
+    /**
+     * @return false if a codec or a converter has been registered since the table was built
+     */
+    boolean isCurrent(DispatchTable table) {
+        return table.registryVersion == ethereumProxy.getRegistryVersion() && table.converterVersion == converterVersion.get();
+    }
+
+    private Map<Method, SmartContractMethod> createDispatchTable(Map<Method, SolidityFunction> functions) {
+        Map<Method, SmartContractMethod> methods = new HashMap<>();
+        functions.forEach((method, function) -> methods.put(method, createContractMethod(method, function)));
+        return Collections.unmodifiableMap(methods);
+    }
+
+    private SmartContractMethod createContractMethod(Method method, SolidityFunction function) {
+        GasUsage gasLimit = SmartContract.getFixedGasLimit(method);
+        if (method.getReturnType().equals(Void.TYPE)) {
+            return new SmartContractMethod(function, SmartContractMethod.CallType.Transaction, null, null, gasLimit);
+        }
+        return findConverter(method.getReturnType()).map(converter -> {
+            if (converter.isFutureType(method.getReturnType())) {
+                SmartContractMethod.CallType callType = function.isConstant() ? SmartContractMethod.CallType.FutureConstant : SmartContractMethod.CallType.FutureTransaction;
+                return new SmartContractMethod(function, callType, converter, getGenericType(method.getGenericReturnType()), gasLimit);
+            }
+            return new SmartContractMethod(function, SmartContractMethod.CallType.PayableTransaction, converter, getGenericType(method.getGenericReturnType()), gasLimit);
+        }).orElseGet(() -> new SmartContractMethod(function, SmartContractMethod.CallType.Constant, null, method.getGenericReturnType(), gasLimit));
+    }
+
+    private Map<Method, SolidityFunction> verifyContract(SmartContract smartContract, Class<?> contractInterface) {
+        Set<Method> interfaceMethods = new HashSet<>(Arrays.asList(contractInterface.getMethods()));
+        Set<SolidityFunction> solidityFunctions = new HashSet<>(smartContract.getFunctions());
+
+        Map<Method, Optional<SolidityFunction>> matches = interfaceMethods.stream()
+                .collect(Collectors.toMap(Function.identity(), method -> solidityFunctions.stream()
+                        .filter(solidityMethod -> solidityMethod.getName().equals(method.getName()) && solidityMethod.matchParams(method.getParameterTypes())).findFirst()));
+
+        matches.forEach((key, optValue) -> optValue
+                .map(value -> validateReturnValue(key, value))
+                .orElseThrow(() -> new EthereumApiException(generateUnmatchedMethodsError(solidityFunctions, interfaceMethods))));
+
+        return matches.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get()));
+    }
+
+    private boolean validateReturnValue(Method method, SolidityFunction value) {
+        return findConverter(method.getReturnType())
+                .map(converter -> {
+                    value.decode(EthData.empty(), getGenericType(method.getGenericReturnType()));
+                    return true;
+                })
+                .orElseGet(() -> {
+                    value.decode(EthData.empty(), method.getGenericReturnType());
+                    return true;
+                });
+
+    }
+
+    private String generateUnmatchedMethodsError(Set<SolidityFunction> solidityFunctions, Set<Method> interfaceMethods) {
+        String unmatchedSolidityMethods = solidityFunctions.stream().filter(solidityMethod -> interfaceMethods.stream()
+                .noneMatch(method -> solidityMethod.getName().equals(method.getName()) && solidityMethod.matchParams(method.getParameterTypes())))
+                .map(func -> "- " + func.toString())
+                .collect(Collectors.joining("\n"));
+
+        List<Method> unmatched = interfaceMethods.stream().filter(method -> solidityFunctions.stream()
+                .noneMatch(solidityMethod -> solidityMethod.getName().equals(method.getName()) && solidityMethod.matchParams(method.getParameterTypes())))
+                .collect(Collectors.toList());
+
+        String functions = unmatched.stream()
+                .map(method -> "- " + method.getName() + "(" + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(", ")) + ")")
+                .collect(Collectors.joining("\n"));
+
+        return "*** unmatched *** \nsolidity:\n" + unmatchedSolidityMethods +
+                "\njava:\n" + functions;
+    }
+
+    void addFutureConverter(final FutureConverter futureConverter) {
+        futureConverters.add(futureConverter);
+        converterVersion.incrementAndGet();
+    }
+
+    private Class<?> getGenericType(Type genericType) {
+        return (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
+    }
+
+    /**
+     * Static so that the values stored in the ClassValue do not reference it
+     */
+    private static final class DispatchTables extends LinkedHashMap<String, DispatchTable> {
+        private DispatchTables() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DispatchTable> eldest) {
+            return size() > MAX_TABLES_PER_INTERFACE;
+        }
+    }
+
+    static final class DispatchTable {
+        final Map<Method, SmartContractMethod> methods;
+        private final int registryVersion;
+        private final int converterVersion;
+
+        private DispatchTable(Map<Method, SmartContractMethod> methods, int registryVersion, int converterVersion) {
+            this.methods = methods;
+            this.registryVersion = registryVersion;
+            this.converterVersion = converterVersion;
+        }
+    }
+}
@@ -6,8 +6,10 @@ import org.adridadou.ethereum.propeller.solidity.converters.SolidityTypeGroup;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.*;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.ArrayDecoder;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.EthDataListDecoder;
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.IteratorDecoder;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.ListDecoder;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.SetDecoder;
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.StreamDecoder;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.*;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.list.ArrayEncoder;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.list.ListEncoder;
@@ -43,6 +45,11 @@ public final class CoreEthereumFacadeProvider {
 
     private static void registerDefaultDecoders(EthereumProxy proxy) {
         proxy
+                .addDecoder(SolidityTypeGroup.Number, new LongDecoder())
+                .addDecoder(SolidityTypeGroup.Number, new IntegerDecoder())
+                .addDecoder(SolidityTypeGroup.Number, new ShortDecoder())
+                .addDecoder(SolidityTypeGroup.Number, new ByteDecoder())
+                .addDecoder(SolidityTypeGroup.Number, new UInt256Decoder())
                 .addDecoder(SolidityTypeGroup.Number, new NumberDecoder())
                 .addDecoder(SolidityTypeGroup.Bool, new BooleanDecoder())
                 .addDecoder(SolidityTypeGroup.String, new StringDecoder())
@@ -54,6 +61,7 @@ public final class CoreEthereumFacadeProvider {
 
     private static void registerDefaultEncoders(EthereumProxy proxy) {
         proxy
+                .addEncoder(SolidityTypeGroup.Number, new UInt256Encoder())
                 .addEncoder(SolidityTypeGroup.Number, new NumberEncoder())
                 .addEncoder(SolidityTypeGroup.Number, new EnumEncoder())
                 .addEncoder(SolidityTypeGroup.Bool, new BooleanEncoder())
@@ -67,16 +75,18 @@ public final class CoreEthereumFacadeProvider {
 
     private static void registerDefaultListDecoder(EthereumProxy proxy) {
         proxy
-                .addListDecoder(ListDecoder.class)
-                .addListDecoder(SetDecoder.class)
-                .addListDecoder(ArrayDecoder.class)
-                .addListDecoder(EthDataListDecoder.class);
+                .addListDecoder(ListDecoder::new)
+                .addListDecoder(SetDecoder::new)
+                .addListDecoder(ArrayDecoder::new)
+                .addListDecoder(IteratorDecoder::new)
+                .addListDecoder(StreamDecoder::new)
+                .addListDecoder(EthDataListDecoder::new);
     }
 
     private static void registerDefaultListEncoder(EthereumProxy proxy) {
         proxy
-                .addListEncoder(ListEncoder.class)
-                .addListEncoder(SetEncoder.class)
-                .addListEncoder(ArrayEncoder.class);
+                .addListEncoder(ListEncoder::new)
+                .addListEncoder(SetEncoder::new)
+                .addListEncoder(ArrayEncoder::new);
     }
 }
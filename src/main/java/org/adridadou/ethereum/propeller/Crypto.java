@@ -2,7 +2,6 @@ package org.adridadou.ethereum.propeller;
 
 import org.adridadou.ethereum.propeller.values.EthData;
 import org.spongycastle.crypto.generators.SCrypt;
-import org.spongycastle.jcajce.provider.digest.Keccak;
 
 import javax.crypto.*;
 import javax.crypto.spec.IvParameterSpec;
@@ -10,7 +9,6 @@ import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
@@ -47,10 +45,7 @@ public final class Crypto {
     }
 
     public static byte[] sha3(byte[] h) {
-        MessageDigest KECCAK = new Keccak.Digest256();
-        KECCAK.reset();
-        KECCAK.update(h);
-        return KECCAK.digest();
+        return Keccak256.hash(h);
     }
 
     public static EthData sha3(EthData h) {
@@ -4,6 +4,11 @@ import org.adridadou.ethereum.propeller.event.BlockInfo;
 import org.adridadou.ethereum.propeller.event.EthereumEventHandler;
 import org.adridadou.ethereum.propeller.values.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
 /**
  * Created by davidroon on 20.01.17.
  * This code is released under Apache 2 license
@@ -31,6 +36,30 @@ public interface EthereumBackend {
 
     EthData constantCall(EthAccount account, EthAddress address, EthValue value, EthData data);
 
+    /**
+     * Executes a constant call without blocking the caller. Backends with an asynchronous transport should override this method,
+     * the default implementation runs the blocking call on the executor
+     *
+     * @param executor The executor configured in {@link EthereumConfig#constantCallExecutor()}
+     * @return The future result
+     */
+    default CompletableFuture<EthData> constantCallAsync(EthAccount account, EthAddress address, EthValue value, EthData data, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> constantCall(account, address, value, data), executor);
+    }
+
+    /**
+     * Executes several constant calls. Backends that can send them in one round-trip should override this method,
+     * the default implementation executes them one after the other
+     *
+     * @param calls The calls to execute
+     * @return The results, in the same order as the calls
+     */
+    default List<EthData> constantCalls(List<ConstantCall> calls) {
+        return calls.stream()
+                .map(call -> constantCall(call.getAccount(), call.getAddress(), call.getValue(), call.getData()))
+                .collect(Collectors.toList());
+    }
+
     void register(EthereumEventHandler eventHandler);
 
 
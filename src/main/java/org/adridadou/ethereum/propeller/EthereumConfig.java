@@ -1,5 +1,8 @@
 package org.adridadou.ethereum.propeller;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Created by davidroon on 25.04.17.
  * This code is released under Apache 2 license
@@ -7,10 +10,22 @@ package org.adridadou.ethereum.propeller;
 public class EthereumConfig {
     private final String swarmUrl;
     private final long blockWaitLimit;
+    private final int constantCallCacheSize;
+    private final boolean invalidateCacheOnTransaction;
+    private final Executor constantCallExecutor;
+    private final int gasEstimateCacheSize;
 
     public EthereumConfig(String swarmUrl, long blockWaitLimit) {
+        this(swarmUrl, blockWaitLimit, 0, false, ForkJoinPool.commonPool(), 0);
+    }
+
+    public EthereumConfig(String swarmUrl, long blockWaitLimit, int constantCallCacheSize, boolean invalidateCacheOnTransaction, Executor constantCallExecutor, int gasEstimateCacheSize) {
         this.swarmUrl = swarmUrl;
         this.blockWaitLimit = blockWaitLimit;
+        this.constantCallCacheSize = constantCallCacheSize;
+        this.invalidateCacheOnTransaction = invalidateCacheOnTransaction;
+        this.constantCallExecutor = constantCallExecutor;
+        this.gasEstimateCacheSize = gasEstimateCacheSize;
     }
 
     public static Builder builder() {
@@ -25,9 +40,42 @@ public class EthereumConfig {
         return blockWaitLimit;
     }
 
+    /**
+     * @return the maximum number of constant call results cached for the current block. 0 means no cache
+     */
+    public int constantCallCacheSize() {
+        return constantCallCacheSize;
+    }
+
+    /**
+     * @return whether the cached results of a contract are dropped as soon as a transaction to this contract is executed
+     */
+    public boolean invalidateCacheOnTransaction() {
+        return invalidateCacheOnTransaction;
+    }
+
+    /**
+     * @return the executor used by backends that cannot execute constant calls asynchronously by themselves.
+     * Nonces are also loaded and reloaded from the backend on it
+     */
+    public Executor constantCallExecutor() {
+        return constantCallExecutor;
+    }
+
+    /**
+     * @return the maximum number of cached gas estimates. 0 means that every transaction is estimated by the backend
+     */
+    public int gasEstimateCacheSize() {
+        return gasEstimateCacheSize;
+    }
+
     public static class Builder {
         protected String swarmUrl = "http://swarm-gateways.net";
         protected long blockWaitLimit = 16;
+        protected int constantCallCacheSize = 0;
+        protected boolean invalidateCacheOnTransaction = false;
+        protected Executor constantCallExecutor = ForkJoinPool.commonPool();
+        protected int gasEstimateCacheSize = 0;
 
 
         public Builder swarmUrl(String url) {
@@ -40,8 +88,28 @@ public class EthereumConfig {
             return this;
         }
 
+        public Builder constantCallCacheSize(int size) {
+            this.constantCallCacheSize = size;
+            return this;
+        }
+
+        public Builder invalidateCacheOnTransaction(boolean invalidate) {
+            this.invalidateCacheOnTransaction = invalidate;
+            return this;
+        }
+
+        public Builder constantCallExecutor(Executor executor) {
+            this.constantCallExecutor = executor;
+            return this;
+        }
+
+        public Builder gasEstimateCacheSize(int size) {
+            this.gasEstimateCacheSize = size;
+            return this;
+        }
+
         public EthereumConfig build() {
-            return new EthereumConfig(swarmUrl, blockWaitLimit);
+            return new EthereumConfig(swarmUrl, blockWaitLimit, constantCallCacheSize, invalidateCacheOnTransaction, constantCallExecutor, gasEstimateCacheSize);
         }
     }
 }
@@ -1,23 +1,12 @@
 package org.adridadou.ethereum.propeller;
 
-import org.adridadou.ethereum.propeller.converters.future.CompletableFutureConverter;
-import org.adridadou.ethereum.propeller.converters.future.FutureConverter;
 import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+
 import org.adridadou.ethereum.propeller.solidity.SolidityContractDetails;
-import org.adridadou.ethereum.propeller.solidity.SolidityFunction;
-import org.adridadou.ethereum.propeller.values.EthAccount;
-import org.adridadou.ethereum.propeller.values.EthAddress;
-import org.adridadou.ethereum.propeller.values.EthData;
-import org.adridadou.ethereum.propeller.values.SmartContractInfo;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.*;
 import java.util.concurrent.ExecutionException;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static org.adridadou.ethereum.propeller.values.EthValue.wei;
 
@@ -27,16 +16,21 @@ import static org.adridadou.ethereum.propeller.values.EthValue.wei;
  * This code is released under Apache 2 license
  */
 class EthereumContractInvocationHandler implements InvocationHandler {
-
-    private final Map<EthAddress, Map<EthAccount, SmartContract>> contracts = new HashMap<>();
-    private final EthereumProxy ethereumProxy;
-    private final Map<Object, SmartContractInfo> info = new HashMap<>();
-    private final List<FutureConverter> futureConverters = new ArrayList<>();
-
-
-    EthereumContractInvocationHandler(EthereumProxy ethereumProxy) {
-        this.ethereumProxy = ethereumProxy;
-        this.futureConverters.add(new CompletableFutureConverter());
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    private final SmartContract contract;
+    private final ContractProxyFactory factory;
+    private final SolidityContractDetails details;
+    private final Class<?> contractInterface;
+    private volatile ContractProxyFactory.DispatchTable table;
+
+    EthereumContractInvocationHandler(SmartContract contract, ContractProxyFactory factory, SolidityContractDetails details, Class<?> contractInterface,
+                                      ContractProxyFactory.DispatchTable table) {
+        this.contract = contract;
+        this.factory = factory;
+        this.details = details;
+        this.contractInterface = contractInterface;
+        this.table = table;
     }
 
     @Override
@@ -45,113 +39,58 @@ class EthereumContractInvocationHandler implements InvocationHandler {
             return handleDefaultObjectClassMethod(proxy, method, args);
         }
 
-        SmartContractInfo contractInfo = info.get(proxy);
-        SmartContract contract = contracts.get(contractInfo.getAddress()).get(contractInfo.getAccount());
-        Object[] arguments = Optional.ofNullable(args).orElse(new Object[0]);
+        SmartContractMethod contractMethod = getMethod(method);
+        Object[] arguments = args == null ? EMPTY_ARGS : args;
 
-        if (method.getReturnType().equals(Void.TYPE)) {
-            try {
-                contract.callFunction(method, arguments).get();
-            } catch (ExecutionException e) {
-                throw e.getCause();
-            }
-
-            return Void.TYPE;
-        } else {
-            return findConverter(method.getReturnType()).map(converter -> {
-                if (converter.isFutureType(method.getReturnType())) {
-                    return converter.convert(contract.callFunction(method, arguments));
+        switch (contractMethod.getCallType()) {
+            case Transaction:
+                try {
+                    contract.callFunction(contractMethod.getFunction(), null, wei(0), contractMethod.getGasLimit(), arguments).get();
+                } catch (ExecutionException e) {
+                    throw e.getCause();
                 }
-                return converter.getPayable(contract, arguments, method);
-            }).orElseGet(() -> contract.callConstFunction(method, wei(0), arguments));
+                return Void.TYPE;
+            case FutureConstant:
+                return contractMethod.getConverter().convert(contract.callConstFunctionAsync(contractMethod.getFunction(), contractMethod.getResultType(), wei(0), arguments));
+            case FutureTransaction:
+                return contractMethod.getConverter().convert(contract.callFunction(contractMethod.getFunction(), (Class<?>) contractMethod.getResultType(), wei(0), contractMethod.getGasLimit(), arguments));
+            case PayableTransaction:
+                return contractMethod.getConverter().getPayable(contract, arguments, method);
+            default:
+                return contract.callConstFunction(contractMethod.getFunction(), contractMethod.getResultType(), wei(0), arguments);
         }
     }
 
     private Object handleDefaultObjectClassMethod(Object proxy, Method method, Object[] args) {
         switch (method.getName()) {
             case "toString":
-                SmartContractInfo contractInfo = info.get(proxy);
-                return "Smart contract proxy \naccount:" + contractInfo.getAccount().getAddress().withLeading0x() + "\ncontract address:" + contractInfo.getAddress().withLeading0x();
+                return "Smart contract proxy \naccount:" + contract.getAccount().getAddress().withLeading0x() + "\ncontract address:" + contract.getAddress().withLeading0x();
             case "equals":
                 return proxy == args[0];
             case "hashCode":
-                return 0;
+                return System.identityHashCode(proxy);
             default:
                 throw new EthereumApiException("unhandled default Object method " + method.getName() + ". please fill an issue if you need this method");
         }
     }
 
-    private boolean isDefaultObjectClassMethod(Method method) {
-        return method.getDeclaringClass().equals(Object.class);
-    }
-
-    private Optional<FutureConverter> findConverter(Class type) {
-        return futureConverters.stream()
-                .filter(converter -> converter.isFutureType(type) || converter.isPayableType(type)).findFirst();
+    SmartContract getContract() {
+        return contract;
     }
 
-    <T> void register(T proxy, Class<T> contractInterface, SolidityContractDetails contract, EthAddress address, EthAccount account) {
-        if (address.isEmpty()) {
-            throw new EthereumApiException("the contract address cannot be empty");
+    /**
+     * The table is replaced when a codec or a converter has been registered after the proxy was created
+     */
+    SmartContractMethod getMethod(Method method) {
+        ContractProxyFactory.DispatchTable current = table;
+        if (!factory.isCurrent(current)) {
+            current = factory.getDispatchTable(contract, details, contractInterface);
+            table = current;
         }
-        SmartContract smartContract = ethereumProxy.getSmartContract(contract, address, account);
-        verifyContract(smartContract, contractInterface);
-
-        info.put(proxy, new SmartContractInfo(address, account));
-        Map<EthAccount, SmartContract> proxies = contracts.getOrDefault(address, new HashMap<>());
-        proxies.put(account, smartContract);
-        contracts.put(address, proxies);
+        return current.methods.get(method);
     }
 
-    private void verifyContract(SmartContract smartContract, Class<?> contractInterface) {
-        Set<Method> interfaceMethods = new HashSet<>(Arrays.asList(contractInterface.getMethods()));
-        Set<SolidityFunction> solidityFunctions = new HashSet<>(smartContract.getFunctions());
-
-        Map<Method, Optional<SolidityFunction>> matches = interfaceMethods.stream()
-                .collect(Collectors.toMap(Function.identity(), method -> solidityFunctions.stream()
-                        .filter(solidityMethod -> solidityMethod.getName().equals(method.getName()) && solidityMethod.matchParams(method.getParameterTypes())).findFirst()));
-
-        matches.forEach((key, optValue) -> optValue
-                .map(value -> validateReturnValue(key, value))
-                .orElseThrow(() -> new EthereumApiException(generateUnmatchedMethodsError(solidityFunctions, interfaceMethods))));
-    }
-
-    private boolean validateReturnValue(Method method, SolidityFunction value) {
-        return findConverter(method.getReturnType())
-                .map(converter -> {
-                    value.decode(EthData.empty(), getGenericType(method.getGenericReturnType()));
-                    return true;
-                })
-                .orElseGet(() -> {
-                    value.decode(EthData.empty(), method.getGenericReturnType());
-                    return true;
-                });
-
-    }
-
-    private String generateUnmatchedMethodsError(Set<SolidityFunction> solidityFunctions, Set<Method> interfaceMethods) {
-        String unmatchedSolidityMethods = solidityFunctions.stream().filter(solidityMethod -> interfaceMethods.stream()
-                .noneMatch(method -> solidityMethod.getName().equals(method.getName()) && solidityMethod.matchParams(method.getParameterTypes())))
-                .map(func -> "- " + func.toString())
-                .collect(Collectors.joining("\n"));
-
-        List<Method> unmatched = interfaceMethods.stream().filter(method -> solidityFunctions.stream()
-                .noneMatch(solidityMethod -> solidityMethod.getName().equals(method.getName()) && solidityMethod.matchParams(method.getParameterTypes())))
-                .collect(Collectors.toList());
-
-        String functions = unmatched.stream()
-                .map(method -> "- " + method.getName() + "(" + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(", ")) + ")")
-                .collect(Collectors.joining("\n"));
-
-        return "*** unmatched *** \nsolidity:\n" + unmatchedSolidityMethods +
-                "\njava:\n" + functions;
-    }
-
-    void addFutureConverter(final FutureConverter futureConverter) {
-        futureConverters.add(futureConverter);
-    }
-
-    private Class<?> getGenericType(Type genericType) {
-        return (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
+    private boolean isDefaultObjectClassMethod(Method method) {
+        return method.getDeclaringClass().equals(Object.class);
     }
 }
@@ -20,15 +20,13 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import static java.lang.reflect.Proxy.newProxyInstance;
-
 /**
  * Created by davidroon on 31.03.16.
  * This code is released under Apache 2 license
  */
 public class EthereumFacade {
     public static final Charset CHARSET = StandardCharsets.UTF_8;
-    private final EthereumContractInvocationHandler handler;
+    private final ContractProxyFactory proxyFactory;
     private final EthereumProxy ethereumProxy;
     private final SwarmService swarmService;
     private final SolidityCompiler solidityCompiler;
@@ -36,7 +34,7 @@ public class EthereumFacade {
     EthereumFacade(EthereumProxy ethereumProxy, SwarmService swarmService, SolidityCompiler solidityCompiler) {
         this.swarmService = swarmService;
         this.solidityCompiler = solidityCompiler;
-        this.handler = new EthereumContractInvocationHandler(ethereumProxy);
+        this.proxyFactory = new ContractProxyFactory(ethereumProxy);
         this.ethereumProxy = ethereumProxy;
     }
 
@@ -59,7 +57,7 @@ public class EthereumFacade {
      * @return The EthereumFacade object itself
      */
     public EthereumFacade addFutureConverter(FutureConverter futureConverter) {
-        handler.addFutureConverter(futureConverter);
+        proxyFactory.addFutureConverter(futureConverter);
         return this;
     }
 
@@ -87,9 +85,7 @@ public class EthereumFacade {
      * @return The contract proxy object
      */
     public <T> T createContractProxy(EthAbi abi, EthAddress address, EthAccount account, Class<T> contractInterface) {
-        T proxy = (T) newProxyInstance(contractInterface.getClassLoader(), new Class[]{contractInterface}, handler);
-        handler.register(proxy, contractInterface, new SolidityContractDetails(abi.getAbi(), null, null), address, account);
-        return proxy;
+        return proxyFactory.createProxy(contractInterface, new SolidityContractDetails(abi.getAbi(), null, null), address, account);
     }
 
     /**
@@ -102,9 +98,15 @@ public class EthereumFacade {
      * @return The contract proxy object
      */
     public <T> T createContractProxy(SolidityContractDetails details, EthAddress address, EthAccount account, Class<T> contractInterface) {
-        T proxy = (T) newProxyInstance(contractInterface.getClassLoader(), new Class[]{contractInterface}, handler);
-        handler.register(proxy, contractInterface, details, address, account);
-        return proxy;
+        return proxyFactory.createProxy(contractInterface, details, address, account);
+    }
+
+    /**
+     * Creates a new batch of constant calls. The calls added to the batch are sent to the backend in one request
+     * @return The new batch
+     */
+    public ContractBatch batch() {
+        return new ContractBatch(ethereumProxy);
     }
 
     /**
@@ -281,6 +283,27 @@ public class EthereumFacade {
         return ethereumProxy.observeEvents(eventDefiniton, address);
     }
 
+    /**
+     * Creates a filter on the indexed parameters of an event
+     * @param eventDefinition The event definition
+     * @param <T> The event entity type
+     * @return The filter, accepting all the events until conditions are added with {@link EventFilter#where(String, Object)}
+     */
+    public <T> EventFilter<T> eventFilter(SolidityEvent<T> eventDefinition) {
+        return new EventFilter<>(ethereumProxy, eventDefinition);
+    }
+
+    /**
+     * Observe the events from a smart contract that match a filter
+     * @param filter The event filter
+     * @param address The smart contract's address
+     * @param <T> The event entity type
+     * @return The event observable
+     */
+    public <T> Observable<T> observeEvents(EventFilter<T> filter, EthAddress address) {
+        return ethereumProxy.observeEvents(filter, address);
+    }
+
     /**
      * Returns all the events that happened at a specific block
      *
@@ -307,6 +330,32 @@ public class EthereumFacade {
         return ethereumProxy.getEvents(eventDefinition, address, eventDefinition.getEntityClass(), blockHash);
     }
 
+    /**
+     * Returns the events matching a filter that happened at a specific block
+     *
+     * @param blockNumber The block number
+     * @param filter      The event filter
+     * @param address     The smart contract's address
+     * @param <T> The event entity type
+     * @return The list of events
+     */
+    public <T> List<T> getEventsAt(Long blockNumber, EventFilter<T> filter, EthAddress address) {
+        return ethereumProxy.getEvents(filter, address, blockNumber);
+    }
+
+    /**
+     * Returns the events matching a filter that happened at a specific block
+     *
+     * @param blockHash The block hash
+     * @param filter    The event filter
+     * @param address   The smart contract's address
+     * @param <T> The event entity type
+     * @return The list of events
+     */
+    public <T> List<T> getEventsAt(EthHash blockHash, EventFilter<T> filter, EthAddress address) {
+        return ethereumProxy.getEvents(filter, address, blockHash);
+    }
+
     /**
      * Encodes an argument manually. This can be useful when you need to send a value to a bytes or bytes32 input
      * @param arg The argument to encode
@@ -315,9 +364,8 @@ public class EthereumFacade {
      */
     public EthData encode(Object arg, SolidityType solidityType) {
         return Optional.of(arg).map(argument -> {
-            SolidityTypeEncoder encoder = ethereumProxy.getEncoders(new AbiParam(false, "", solidityType.name()))
-                    .stream().filter(enc -> enc.canConvert(arg.getClass()))
-                    .findFirst().orElseThrow(() -> new EthereumApiException("cannot convert the type " + argument.getClass() + " to the solidty type " + solidityType));
+            SolidityTypeEncoder encoder = ethereumProxy.getEncoderBinding(new AbiParam(false, "", solidityType.name()))
+                    .find(arg.getClass()).orElseThrow(() -> new EthereumApiException("cannot convert the type " + argument.getClass() + " to the solidty type " + solidityType));
 
             return encoder.encode(arg, solidityType);
         }).orElseGet(EthData::empty);
@@ -336,10 +384,8 @@ public class EthereumFacade {
         if (ethereumProxy.isVoidType(cls)) {
             return null;
         }
-        SolidityTypeDecoder decoder = ethereumProxy.getDecoders(new AbiParam(false, "", solidityType.name()))
-                .stream()
-                .filter(dec -> dec.canDecode(cls))
-                .findFirst().orElseThrow(() -> new EthereumApiException("cannot decode " + solidityType.name() + " to " + cls.getTypeName()));
+        SolidityTypeDecoder decoder = ethereumProxy.getDecoderBinding(new AbiParam(false, "", solidityType.name()))
+                .find(cls).orElseThrow(() -> new EthereumApiException("cannot decode " + solidityType.name() + " to " + cls.getTypeName()));
 
         return (T) decoder.decode(index, data, cls);
     }
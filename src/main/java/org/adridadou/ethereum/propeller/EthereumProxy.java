@@ -5,20 +5,28 @@ import org.adridadou.ethereum.propeller.exception.EthereumApiException;
 import org.adridadou.ethereum.propeller.solidity.SolidityContractDetails;
 import org.adridadou.ethereum.propeller.solidity.SolidityEvent;
 import org.adridadou.ethereum.propeller.solidity.SolidityType;
+import org.adridadou.ethereum.propeller.solidity.SolidityTypeDescriptor;
 import org.adridadou.ethereum.propeller.solidity.abi.AbiParam;
+import org.adridadou.ethereum.propeller.solidity.converters.CodecBinding;
 import org.adridadou.ethereum.propeller.solidity.converters.SolidityTypeGroup;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.CollectionDecoder;
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.CollectionDecoderFactory;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.SolidityTypeEncoder;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.list.CollectionEncoder;
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.list.CollectionEncoderFactory;
 import org.adridadou.ethereum.propeller.values.*;
 import org.apache.commons.lang.ArrayUtils;
 import rx.Observable;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static org.adridadou.ethereum.propeller.values.EthValue.wei;
@@ -34,19 +42,31 @@ class EthereumProxy {
     private final EthereumBackend ethereum;
     private final EthereumEventHandler eventHandler;
     private final EthereumConfig config;
-    private final Map<EthAddress, Set<EthHash>> pendingTransactions = new ConcurrentHashMap<>();
-    private final Map<EthAddress, Nonce> nonces = new ConcurrentHashMap<>();
     private final Map<SolidityTypeGroup, List<SolidityTypeEncoder>> encoders = new HashMap<>();
     private final Map<SolidityTypeGroup, List<SolidityTypeDecoder>> decoders = new HashMap<>();
-    private final List<Class<? extends CollectionDecoder>> listDecoders = new ArrayList<>();
-    private final List<Class<? extends CollectionEncoder>> listEncoders = new ArrayList<>();
+    private final List<CollectionDecoderFactory> listDecoders = new ArrayList<>();
+    private final List<CollectionEncoderFactory> listEncoders = new ArrayList<>();
+    private final Map<String, CodecBinding<SolidityTypeEncoder>> encoderBindings = new ConcurrentHashMap<>();
+    private final Map<String, CodecBinding<SolidityTypeDecoder>> decoderBindings = new ConcurrentHashMap<>();
     private final Set<Class<?>> voidClasses = new HashSet<>();
+    private final AtomicInteger registryVersion = new AtomicInteger();
+    private final ConstantCallCache constantCallCache;
+    private final ReceiptDispatcher receiptDispatcher;
+    private final NonceManager nonceManager;
+    private final GasEstimator gasEstimator;
+    private final EventDispatcher eventDispatcher;
 
     EthereumProxy(EthereumBackend ethereum, EthereumEventHandler eventHandler, EthereumConfig config) {
         this.ethereum = ethereum;
         this.eventHandler = eventHandler;
         this.config = config;
+        this.constantCallCache = config.constantCallCacheSize() > 0 ? new ConstantCallCache(config.constantCallCacheSize(), eventHandler.getCurrentBlockNumber()) : null;
+        this.nonceManager = new NonceManager(ethereum::getNonce, config.constantCallExecutor());
+        this.receiptDispatcher = new ReceiptDispatcher(eventHandler, config.blockWaitLimit(), nonceManager::expired);
+        this.eventDispatcher = new EventDispatcher(eventHandler);
+        this.gasEstimator = config.gasEstimateCacheSize() > 0 ? new GasEstimator(config.gasEstimateCacheSize(), ADDITIONAL_GAS_DIRTY_FIX) : null;
         updateNonce();
+        updateConstantCallCache();
         ethereum.register(eventHandler);
     }
 
@@ -58,22 +78,66 @@ class EthereumProxy {
     EthereumProxy addEncoder(final SolidityTypeGroup typeGroup, final SolidityTypeEncoder encoder) {
         List<SolidityTypeEncoder> encoderList = encoders.computeIfAbsent(typeGroup, key -> new ArrayList<>());
         encoderList.add(encoder);
+        codecsChanged();
         return this;
     }
 
     EthereumProxy addListDecoder(final Class<? extends CollectionDecoder> decoder) {
+        try {
+            Constructor<? extends CollectionDecoder> constructor = decoder.getConstructor(List.class, Integer.class);
+            return addListDecoder((decoders, size) -> newListCodec(constructor, decoders, size));
+        } catch (NoSuchMethodException e) {
+            throw new EthereumApiException("error while creating a List decoder", e);
+        }
+    }
+
+    EthereumProxy addListDecoder(final CollectionDecoderFactory decoder) {
         listDecoders.add(decoder);
+        codecsChanged();
         return this;
     }
 
-    EthereumProxy addListEncoder(final Class<? extends CollectionEncoder> decoder) {
-        listEncoders.add(decoder);
+    EthereumProxy addListEncoder(final Class<? extends CollectionEncoder> encoder) {
+        try {
+            Constructor<? extends CollectionEncoder> dynamicConstructor = encoder.getConstructor(List.class);
+            Constructor<? extends CollectionEncoder> fixedSizeConstructor = encoder.getConstructor(List.class, Integer.class);
+            return addListEncoder((encoders, size) -> size == null ? newListCodec(dynamicConstructor, encoders) : newListCodec(fixedSizeConstructor, encoders, size));
+        } catch (NoSuchMethodException e) {
+            throw new EthereumApiException("error while preparing list encoders", e);
+        }
+    }
+
+    EthereumProxy addListEncoder(final CollectionEncoderFactory encoder) {
+        listEncoders.add(encoder);
+        codecsChanged();
         return this;
     }
 
+    /**
+     * @return a number that changes each time a codec is registered. Functions built with an older version use outdated codecs
+     */
+    int getRegistryVersion() {
+        return registryVersion.get();
+    }
+
+    private void codecsChanged() {
+        encoderBindings.clear();
+        decoderBindings.clear();
+        registryVersion.incrementAndGet();
+    }
+
+    private <T> T newListCodec(Constructor<T> constructor, Object... args) {
+        try {
+            return constructor.newInstance(args);
+        } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
+            throw new EthereumApiException("error while creating a list codec", e);
+        }
+    }
+
     EthereumProxy addDecoder(final SolidityTypeGroup typeGroup, final SolidityTypeDecoder decoder) {
         List<SolidityTypeDecoder> decoderList = decoders.computeIfAbsent(typeGroup, key -> new ArrayList<>());
         decoderList.add(decoder);
+        codecsChanged();
         return this;
     }
 
@@ -86,9 +150,71 @@ class EthereumProxy {
     }
 
     Nonce getNonce(final EthAddress address) {
-        nonces.computeIfAbsent(address, ethereum::getNonce);
-        Integer offset = Optional.ofNullable(pendingTransactions.get(address)).map(Set::size).orElse(0);
-        return nonces.get(address).add(offset);
+        return nonceManager.getNonce(address);
+    }
+
+    /**
+     * Executes a constant call. If the constant call cache is enabled, calls without value are answered
+     * from the cache when the same call has already been made in the current block
+     */
+    EthData constantCall(EthAccount account, EthAddress address, EthValue value, EthData data) {
+        if (constantCallCache == null || !value.isZero()) {
+            return ethereum.constantCall(account, address, value, data);
+        }
+        long blockNumber = constantCallCache.getCurrentBlock();
+        return constantCallCache.get(account.getAddress(), address, data).orElseGet(() -> {
+            EthData result = ethereum.constantCall(account, address, value, data);
+            constantCallCache.put(account.getAddress(), address, data, result, blockNumber);
+            return result;
+        });
+    }
+
+    CompletableFuture<EthData> constantCallAsync(EthAccount account, EthAddress address, EthValue value, EthData data) {
+        if (constantCallCache == null || !value.isZero()) {
+            return ethereum.constantCallAsync(account, address, value, data, config.constantCallExecutor());
+        }
+        long blockNumber = constantCallCache.getCurrentBlock();
+        return constantCallCache.get(account.getAddress(), address, data)
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> ethereum.constantCallAsync(account, address, value, data, config.constantCallExecutor())
+                        .thenApply(result -> {
+                            constantCallCache.put(account.getAddress(), address, data, result, blockNumber);
+                            return result;
+                        }));
+    }
+
+    /**
+     * Executes several constant calls in one backend request. Calls that can be answered by the constant call cache
+     * are not sent to the backend
+     */
+    List<EthData> constantCalls(List<ConstantCall> calls) {
+        if (constantCallCache == null) {
+            return ethereum.constantCalls(calls);
+        }
+        long blockNumber = constantCallCache.getCurrentBlock();
+        EthData[] results = new EthData[calls.size()];
+        List<Integer> missingIndexes = new ArrayList<>();
+        for (int i = 0; i < calls.size(); i++) {
+            ConstantCall call = calls.get(i);
+            if (call.getValue().isZero()) {
+                results[i] = constantCallCache.get(call.getAccount().getAddress(), call.getAddress(), call.getData()).orElse(null);
+            }
+            if (results[i] == null) {
+                missingIndexes.add(i);
+            }
+        }
+
+        if (!missingIndexes.isEmpty()) {
+            List<EthData> missingResults = ethereum.constantCalls(missingIndexes.stream().map(calls::get).collect(Collectors.toList()));
+            for (int i = 0; i < missingIndexes.size(); i++) {
+                ConstantCall call = calls.get(missingIndexes.get(i));
+                results[missingIndexes.get(i)] = missingResults.get(i);
+                if (call.getValue().isZero()) {
+                    constantCallCache.put(call.getAccount().getAddress(), call.getAddress(), call.getData(), missingResults.get(i), blockNumber);
+                }
+            }
+        }
+        return Arrays.asList(results);
     }
 
     SmartContractByteCode getCode(EthAddress address) {
@@ -96,25 +222,37 @@ class EthereumProxy {
     }
 
     <T> Observable<T> observeEvents(SolidityEvent eventDefinition, EthAddress contractAddress) {
-        return eventHandler.observeTransactions()
-                .filter(params -> contractAddress.equals(params.receipt.receiveAddress))
-                .flatMap(params -> Observable.from(params.getReceipt().events))
-                .filter(eventDefinition::match)
-                .map(data -> (T) eventDefinition.parseEvent(data, eventDefinition.getEntityClass()));
+        return eventDispatcher.observe((SolidityEvent<T>) eventDefinition, contractAddress);
+    }
+
+    <T> Observable<T> observeEvents(EventFilter<T> filter, EthAddress contractAddress) {
+        return eventDispatcher.observe(filter.getEventDefinition(), contractAddress, filter::matchesTopics);
     }
 
     private CompletableFuture<EthAddress> publishContract(EthValue ethValue, EthData data, EthAccount account) {
-        return this.sendTxInternal(ethValue, data, account, EthAddress.empty())
+        return this.sendTxInternal(ethValue, data, account, EthAddress.empty(), null)
                 .thenApply(receipt -> receipt.contractAddress);
     }
 
     CompletableFuture<EthExecutionResult> sendTx(EthValue value, EthData data, EthAccount account, EthAddress address) {
-        return this.sendTxInternal(value, data, account, address)
+        return sendTx(value, data, account, address, null);
+    }
+
+    /**
+     * Sends a transaction
+     *
+     * @param gasLimit fixed gas limit of the transaction, null if it should be estimated
+     */
+    CompletableFuture<EthExecutionResult> sendTx(EthValue value, EthData data, EthAccount account, EthAddress address, GasUsage gasLimit) {
+        return this.sendTxInternal(value, data, account, address, gasLimit)
                 .thenApply(receipt -> new EthExecutionResult(receipt.executionResult));
     }
 
     public SmartContract getSmartContract(SolidityContractDetails details, EthAddress address, EthAccount account) {
-        return new SmartContract(details, account, address, this, ethereum);
+        if (account != null) {
+            nonceManager.preload(account.getAddress());
+        }
+        return new SmartContract(details, account, address, this);
     }
 
     private CompletableFuture<EthAddress> createContract(SolidityContractDetails contract, EthAccount account, Object... constructorArgs) {
@@ -122,7 +260,7 @@ class EthereumProxy {
     }
 
     private CompletableFuture<EthAddress> createContractWithValue(SolidityContractDetails contract, EthAccount account, EthValue value, Object... constructorArgs) {
-        EthData argsEncoded = new SmartContract(contract, account, EthAddress.empty(), this, ethereum).getConstructor(constructorArgs)
+        EthData argsEncoded = new SmartContract(contract, account, EthAddress.empty(), this).getConstructor(constructorArgs)
                 .map(constructor -> constructor.encode(constructorArgs))
                 .orElseGet(() -> {
                     if (constructorArgs.length > 0) {
@@ -144,81 +282,68 @@ class EthereumProxy {
         }).reduce((a, b) -> a + ", " + b).orElse("[no args]");
     }
 
-    private CompletableFuture<TransactionReceipt> sendTxInternal(EthValue value, EthData data, EthAccount account, EthAddress toAddress) {
+    private CompletableFuture<TransactionReceipt> sendTxInternal(EthValue value, EthData data, EthAccount account, EthAddress toAddress, GasUsage fixedGasLimit) {
+        nonceManager.preload(account.getAddress());
         return eventHandler.ready().thenCompose((v) -> {
-            GasUsage gasLimit = estimateGas(value, data, account, toAddress);
-            EthHash txHash = ethereum.submit(account, toAddress, value, data, getNonce(account.getAddress()), gasLimit);
-
-            long currentBlock = eventHandler.getCurrentBlockNumber();
-
-            CompletableFuture<TransactionReceipt> result = CompletableFuture.supplyAsync(() -> {
-                Observable<TransactionInfo> droppedTxs = eventHandler.observeTransactions()
-                        .filter(params -> params.receipt != null && Objects.equals(params.receipt.hash, txHash) && params.status == TransactionStatus.Dropped);
-                Observable<TransactionInfo> timeoutBlock = eventHandler.observeBlocks()
-                        .filter(blockParams -> blockParams.blockNumber > currentBlock + config.blockWaitLimit())
-                        .map(params -> null);
-                Observable<TransactionInfo> blockTxs = eventHandler.observeBlocks()
-                        .flatMap(params -> Observable.from(params.receipts))
-                        .filter(receipt -> Objects.equals(receipt.hash, txHash))
-                        .map(this::createTransactionParameters);
-
-                return Observable.merge(droppedTxs, blockTxs, timeoutBlock)
-                        .map(params -> {
-                            if (params == null) {
-                                throw new EthereumApiException("the transaction has not been included in the last " + config.blockWaitLimit() + " blocks");
-                            }
-                            TransactionReceipt receipt = params.receipt;
-                            if (params.status == TransactionStatus.Dropped) {
-                                throw new EthereumApiException("the transaction has been dropped! - " + params.receipt.error);
-                            }
-                            return checkForErrors(receipt);
-                        }).toBlocking().first();
+            GasUsage gasLimit = fixedGasLimit != null ? fixedGasLimit : estimateGas(value, data, account, toAddress);
+            Nonce nonce = nonceManager.allocate(account.getAddress());
+            EthHash txHash;
+            try {
+                txHash = ethereum.submit(account, toAddress, value, data, nonce, gasLimit);
+            } catch (RuntimeException e) {
+                nonceManager.rejected(account.getAddress(), nonce, e);
+                throw e;
+            }
+            nonceManager.submitted(account.getAddress(), nonce, txHash);
 
+            if (gasEstimator == null || fixedGasLimit != null) {
+                return receiptDispatcher.watch(txHash, eventHandler.getCurrentBlockNumber());
+            }
+            return receiptDispatcher.watch(txHash, eventHandler.getCurrentBlockNumber(), receipt -> {
+                if (receipt.isSuccessful) {
+                    gasEstimator.observe(toAddress, data, receipt.gasUsed);
+                } else {
+                    gasEstimator.invalidate(toAddress, data);
+                }
             });
-            increasePendingTransactionCounter(account.getAddress(), txHash);
-            return result;
         });
     }
 
     private GasUsage estimateGas(EthValue value, EthData data, EthAccount account, EthAddress toAddress) {
+        if (gasEstimator != null) {
+            return gasEstimator.getGasLimit(toAddress, data, () -> estimateGasWithoutMargin(value, data, account, toAddress));
+        }
+        return estimateGasWithoutMargin(value, data, account, toAddress).add(ADDITIONAL_GAS_DIRTY_FIX);
+    }
+
+    private GasUsage estimateGasWithoutMargin(EthValue value, EthData data, EthAccount account, EthAddress toAddress) {
         GasUsage gasLimit = ethereum.estimateGas(account, toAddress, value, data);
         //if it is a contract creation
         if (toAddress.isEmpty()) {
             gasLimit = gasLimit.add(ADDITIONAL_GAS_FOR_CONTRACT_CREATION);
         }
-        return gasLimit.add(ADDITIONAL_GAS_DIRTY_FIX);
-    }
-
-    private TransactionInfo createTransactionParameters(TransactionReceipt receipt) {
-        return new TransactionInfo(receipt, TransactionStatus.Executed);
-    }
-
-    private TransactionReceipt checkForErrors(final TransactionReceipt receipt) {
-        if (receipt.isSuccessful) {
-            return receipt;
-        } else {
-            throw new EthereumApiException("error with the transaction " + receipt.hash + ". error:" + receipt.error);
-        }
+        return gasLimit;
     }
 
     private void updateNonce() {
         eventHandler.observeTransactions()
                 .filter(tx -> tx.status == TransactionStatus.Dropped)
-                .forEach(params -> {
-                    EthAddress currentAddress = params.receipt.sender;
-                    EthHash hash = params.receipt.hash;
-                    Optional.ofNullable(pendingTransactions.get(currentAddress)).ifPresent(hashes -> {
-                        hashes.remove(hash);
-                        nonces.put(currentAddress, ethereum.getNonce(currentAddress));
-                    });
-                });
+                .forEach(params -> nonceManager.dropped(params.receipt.hash));
+        eventHandler.observeBlocks()
+                .forEach(params -> nonceManager.included(params.receipts));
+    }
+
+    private void updateConstantCallCache() {
+        if (constantCallCache == null) {
+            return;
+        }
         eventHandler.observeBlocks()
-                .forEach(params -> params.receipts
-                        .forEach(receipt -> Optional.ofNullable(pendingTransactions.get(receipt.sender))
-                                .ifPresent(hashes -> {
-                                    hashes.remove(receipt.hash);
-                                    nonces.put(receipt.sender, ethereum.getNonce(receipt.sender));
-                                })));
+                .forEach(params -> constantCallCache.onBlock(params.blockNumber));
+        if (config.invalidateCacheOnTransaction()) {
+            eventHandler.observeTransactions()
+                    .filter(tx -> tx.status == TransactionStatus.Executed && tx.receipt != null)
+                    .forEach(tx -> constantCallCache.invalidate(tx.receipt.receiveAddress));
+        }
     }
 
     EthereumEventHandler events() {
@@ -233,26 +358,26 @@ class EthereumProxy {
         return ethereum.getBalance(address);
     }
 
-    private void increasePendingTransactionCounter(EthAddress address, EthHash hash) {
-        Set<EthHash> hashes = pendingTransactions.computeIfAbsent(address, (key) -> Collections.synchronizedSet(new HashSet<>()));
-        hashes.add(hash);
-        pendingTransactions.put(address, hashes);
+    List<SolidityTypeEncoder> getEncoders(AbiParam abiParam) {
+        return getEncoderBinding(abiParam).getCodecs();
     }
 
-    List<SolidityTypeEncoder> getEncoders(AbiParam abiParam) {
-        SolidityType type = SolidityType.find(abiParam.getType())
+    /**
+     * @return the encoders of the parameter's type, resolved once per type
+     */
+    CodecBinding<SolidityTypeEncoder> getEncoderBinding(AbiParam abiParam) {
+        return encoderBindings.computeIfAbsent(abiParam.getType(), key -> CodecBinding.encoders(createEncoders(abiParam)));
+    }
+
+    private List<SolidityTypeEncoder> createEncoders(AbiParam abiParam) {
+        SolidityTypeDescriptor typeDescriptor = abiParam.getTypeDescriptor();
+        SolidityType type = typeDescriptor.getSolidityType()
                 .orElseThrow(() -> new EthereumApiException("unknown type " + abiParam.getType()));
-        if (abiParam.isArray()) {
-            return listEncoders.stream().map(cls -> {
-                try {
-                    if (abiParam.isDynamic()) {
-                        return cls.getConstructor(List.class).newInstance(getEncoders(type, abiParam));
-                    }
-                    return cls.getConstructor(List.class, Integer.class).newInstance(getEncoders(type, abiParam), abiParam.getArraySize());
-                } catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-                    throw new EthereumApiException("error while preparing list encoders", e);
-                }
-            }).collect(Collectors.toList());
+        if (typeDescriptor.isArray()) {
+            Integer size = typeDescriptor.getArraySize();
+            return listEncoders.stream()
+                    .map(factory -> factory.create(getEncoders(type, abiParam), size))
+                    .collect(Collectors.toList());
         }
         return getEncoders(type, abiParam);
     }
@@ -262,22 +387,37 @@ class EthereumProxy {
     }
 
     List<SolidityTypeDecoder> getDecoders(AbiParam abiParam) {
-        SolidityType type = SolidityType.find(abiParam.getType())
+        return getDecoderBinding(abiParam).getCodecs();
+    }
+
+    /**
+     * @return the decoders of the parameter's type, resolved once per type
+     */
+    CodecBinding<SolidityTypeDecoder> getDecoderBinding(AbiParam abiParam) {
+        return decoderBindings.computeIfAbsent(abiParam.getType(), key -> CodecBinding.decoders(createDecoders(abiParam)));
+    }
+
+    private List<SolidityTypeDecoder> createDecoders(AbiParam abiParam) {
+        SolidityTypeDescriptor typeDescriptor = abiParam.getTypeDescriptor();
+        SolidityType type = typeDescriptor.getSolidityType()
                 .orElseThrow(() -> new EthereumApiException("unknown type " + abiParam.getType()));
 
         SolidityTypeGroup typeGroup = SolidityTypeGroup.resolveGroup(type);
-
-        if (abiParam.isArray() || type.equals(SolidityType.BYTES)) {
-            return listDecoders.stream().map(cls -> {
-                try {
-                    return cls.getConstructor(List.class, Integer.class).newInstance(decoders.get(typeGroup), abiParam.getArraySize());
-                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
-                    throw new EthereumApiException("error while creating a List decoder");
-                }
-            }).collect(Collectors.toList());
+        List<SolidityTypeDecoder> typeDecoders = Optional.ofNullable(decoders.get(typeGroup))
+                .map(groupDecoders -> groupDecoders.stream()
+                        .filter(decoder -> decoder.canDecode(type))
+                        .collect(Collectors.toList()))
+                .orElse(null);
+
+        if (typeDescriptor.isArray() || type.equals(SolidityType.BYTES)) {
+            boolean dynamicElements = typeDescriptor.isArray() && typeDescriptor.getElementType().isDynamic();
+            return listDecoders.stream()
+                    .map(factory -> factory.create(typeDecoders, typeDescriptor.getArraySize()))
+                    .map(decoder -> dynamicElements ? new DynamicElementsDecoder(decoder, abiParam.getType()) : decoder)
+                    .collect(Collectors.toList());
         }
 
-        return Optional.ofNullable(decoders.get(typeGroup))
+        return Optional.ofNullable(typeDecoders)
                 .orElseThrow(() -> new EthereumApiException("no decoder found for solidity type " + abiParam.getType()));
     }
 
@@ -293,15 +433,60 @@ class EthereumProxy {
         return getEvents(eventDefinition, address, cls, ethereum.getBlock(blockHash));
     }
 
+    <T> List<T> getEvents(EventFilter<T> filter, EthAddress address, Long blockNumber) {
+        return getEvents(filter.getEventDefinition(), address, filter.getEventDefinition().getEntityClass(), ethereum.getBlock(blockNumber), filter::mightBeIn, filter::matchesTopics);
+    }
+
+    <T> List<T> getEvents(EventFilter<T> filter, EthAddress address, EthHash blockHash) {
+        return getEvents(filter.getEventDefinition(), address, filter.getEventDefinition().getEntityClass(), ethereum.getBlock(blockHash), filter::mightBeIn, filter::matchesTopics);
+    }
+
     private <T> List<T> getEvents(SolidityEvent eventDefinition, EthAddress address, Class<T> cls, BlockInfo blockInfo) {
+        return getEvents(eventDefinition, address, cls, blockInfo, eventDefinition::mightBeIn, eventInfo -> true);
+    }
+
+    /**
+     * The blooms are only checked when the backend reports them, computing them locally costs more hashing than walking the logs once
+     */
+    private <T> List<T> getEvents(SolidityEvent eventDefinition, EthAddress address, Class<T> cls, BlockInfo blockInfo, Predicate<EthBloom> bloomFilter, Predicate<EventInfo> filter) {
+        if (blockInfo.bloom != null && !bloomFilter.test(blockInfo.bloom)) {
+            return Collections.emptyList();
+        }
         return blockInfo.receipts.stream()
                 .filter(params -> address.equals(params.receiveAddress))
+                .filter(params -> params.bloom == null || bloomFilter.test(params.bloom))
                 .flatMap(params -> params.events.stream())
                 .filter(eventDefinition::match)
+                .filter(filter)
                 .map(data -> (T) eventDefinition.parseEvent(data, cls)).collect(Collectors.toList());
     }
 
     public long getCurrentBlockNumber() {
         return eventHandler.getCurrentBlockNumber();
     }
+
+    /**
+     * The elements of an array of dynamic types (string[], bytes[]) are encoded as offsets relative to the start of the
+     * array, which the collection decoders do not support. Contracts with such functions can still be used, but decoding
+     * their result fails, so a proxy whose interface declares one is refused when it is created
+     */
+    private static final class DynamicElementsDecoder implements SolidityTypeDecoder {
+        private final SolidityTypeDecoder decoder;
+        private final String type;
+
+        private DynamicElementsDecoder(SolidityTypeDecoder decoder, String type) {
+            this.decoder = decoder;
+            this.type = type;
+        }
+
+        @Override
+        public Object decode(Integer index, EthData data, Type resultType) {
+            throw new EthereumApiException("decoding " + type + " is not supported, the elements of an array have to be of a static type");
+        }
+
+        @Override
+        public boolean canDecode(Class<?> resultCls) {
+            return decoder.canDecode(resultCls);
+        }
+    }
 }
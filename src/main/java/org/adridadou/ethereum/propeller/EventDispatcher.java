@@ -0,0 +1,160 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.event.EthereumEventHandler;
+import org.adridadou.ethereum.propeller.event.TransactionInfo;
+import org.adridadou.ethereum.propeller.solidity.SolidityEvent;
+import org.adridadou.ethereum.propeller.values.EthAddress;
+import org.adridadou.ethereum.propeller.values.EthData;
+import org.adridadou.ethereum.propeller.values.EventInfo;
+import rx.Observable;
+import rx.Subscriber;
+import rx.subscriptions.Subscriptions;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Routes the events of the executed transactions to the observeEvents subscribers.
+ * Subscriptions are indexed by contract address and event topic so that each event costs one lookup, whatever the number of subscriptions.
+ * This code is released under Apache 2 license
+ */
+class EventDispatcher {
+    private final Map<EventKey, Set<EventSubscription<?>>> subscriptions = new ConcurrentHashMap<>();
+
+    EventDispatcher(EthereumEventHandler eventHandler) {
+        eventHandler.observeTransactions().forEach(this::onTransaction, this::onStreamError);
+    }
+
+    <T> Observable<T> observe(SolidityEvent<T> eventDefinition, EthAddress contractAddress) {
+        return observe(eventDefinition, contractAddress, eventInfo -> true);
+    }
+
+    /**
+     * @param filter tested on the raw log before it is decoded, the signature has already been matched when it is called
+     */
+    <T> Observable<T> observe(SolidityEvent<T> eventDefinition, EthAddress contractAddress, Predicate<EventInfo> filter) {
+        return Observable.unsafeCreate(subscriber -> {
+            EventSubscription<T> subscription = new EventSubscription<>(eventDefinition, filter, subscriber);
+            EventKey key = new EventKey(contractAddress, eventDefinition.getTopic());
+            EventKey shortKey = new EventKey(contractAddress, eventDefinition.getShortTopic());
+            add(key, subscription);
+            add(shortKey, subscription);
+            subscriber.add(Subscriptions.create(() -> {
+                remove(key, subscription);
+                remove(shortKey, subscription);
+            }));
+        });
+    }
+
+    private void add(EventKey key, EventSubscription<?> subscription) {
+        subscriptions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+    }
+
+    private void remove(EventKey key, EventSubscription<?> subscription) {
+        subscriptions.computeIfPresent(key, (k, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void onTransaction(TransactionInfo tx) {
+        if (subscriptions.isEmpty() || tx.receipt == null || tx.receipt.events == null) {
+            return;
+        }
+        EthAddress receiveAddress = tx.receipt.receiveAddress;
+        for (EventInfo eventInfo : tx.receipt.events) {
+            Set<EventSubscription<?>> eventSubscriptions = subscriptions.get(new EventKey(receiveAddress, eventInfo.getEventSignature()));
+            if (eventSubscriptions != null) {
+                eventSubscriptions.forEach(subscription -> subscription.deliver(eventInfo));
+            }
+        }
+    }
+
+    /**
+     * The transactions stream ended with an error, no event will be delivered anymore
+     */
+    private void onStreamError(Throwable error) {
+        subscriptions.values().forEach(eventSubscriptions -> eventSubscriptions.forEach(subscription -> subscription.fail(error)));
+        subscriptions.clear();
+    }
+
+    private static final class EventSubscription<T> {
+        private final SolidityEvent<T> eventDefinition;
+        private final Predicate<EventInfo> filter;
+        private final Subscriber<? super T> subscriber;
+
+        private EventSubscription(SolidityEvent<T> eventDefinition, Predicate<EventInfo> filter, Subscriber<? super T> subscriber) {
+            this.eventDefinition = eventDefinition;
+            this.filter = filter;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Called on the thread of the transactions stream, shared by all the subscriptions: whatever the filter, the decoding
+         * or the subscriber throws only ends this subscription
+         */
+        private void deliver(EventInfo eventInfo) {
+            if (subscriber.isUnsubscribed()) {
+                return;
+            }
+            T event;
+            try {
+                if (!filter.test(eventInfo)) {
+                    return;
+                }
+                event = eventDefinition.parseEvent(eventInfo, eventDefinition.getEntityClass());
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            try {
+                subscriber.onNext(event);
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable error) {
+            if (subscriber.isUnsubscribed()) {
+                return;
+            }
+            try {
+                subscriber.onError(error);
+            } catch (RuntimeException e) {
+                //the subscriber has no error handler (OnErrorNotImplementedException), there is nobody else to report to
+            }
+        }
+    }
+
+    private static final class EventKey {
+        private final EthAddress address;
+        private final EthData topic;
+        private final int hashCode;
+
+        private EventKey(EthAddress address, EthData topic) {
+            this.address = address;
+            this.topic = topic;
+            this.hashCode = Objects.hash(address, topic);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            EventKey that = (EventKey) o;
+            return hashCode == that.hashCode && Objects.equals(topic, that.topic) && Objects.equals(address, that.address);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
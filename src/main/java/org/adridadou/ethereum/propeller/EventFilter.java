@@ -0,0 +1,120 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.solidity.SolidityEvent;
+import org.adridadou.ethereum.propeller.solidity.SolidityType;
+import org.adridadou.ethereum.propeller.solidity.SolidityTypeDescriptor;
+import org.adridadou.ethereum.propeller.solidity.abi.AbiParam;
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.SolidityTypeEncoder;
+import org.adridadou.ethereum.propeller.values.EthBloom;
+import org.adridadou.ethereum.propeller.values.EthData;
+import org.adridadou.ethereum.propeller.values.EventInfo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Restricts an event to the logs whose indexed parameters have given values.
+ * <pre>
+ * EventFilter&lt;Transfer&gt; filter = ethereum.eventFilter(transfer).where("to", myAddress);
+ * ethereum.observeEvents(filter, tokenAddress).subscribe(...);
+ * </pre>
+ * The expected values are encoded once when the filter is built. Matching compares them with the raw topics of the log,
+ * so that the logs that do not match are never decoded.
+ * A filter is immutable, each call to {@link #where(String, Object)} returns a new one.
+ * This code is released under Apache 2 license
+ */
+public final class EventFilter<T> {
+    private final EthereumProxy ethereumProxy;
+    private final SolidityEvent<T> eventDefinition;
+    private final EthData[] topics;
+    private final EthBloom topicsBloom;
+
+    EventFilter(EthereumProxy ethereumProxy, SolidityEvent<T> eventDefinition) {
+        this(ethereumProxy, eventDefinition, new EthData[(int) eventDefinition.getInputs().stream().filter(AbiParam::isIndexed).count()]);
+    }
+
+    private EventFilter(EthereumProxy ethereumProxy, SolidityEvent<T> eventDefinition, EthData[] topics) {
+        this.ethereumProxy = ethereumProxy;
+        this.eventDefinition = eventDefinition;
+        this.topics = topics;
+        EthBloom bloom = EthBloom.empty();
+        for (EthData topic : topics) {
+            if (topic != null) {
+                bloom = bloom.with(topic);
+            }
+        }
+        this.topicsBloom = bloom;
+    }
+
+    /**
+     * Adds a condition on an indexed parameter
+     *
+     * @param paramName The name of the indexed parameter
+     * @param value     The value the parameter must have
+     * @return A new filter with the condition added
+     */
+    public EventFilter<T> where(String paramName, Object value) {
+        List<AbiParam> inputs = eventDefinition.getInputs();
+        int indexedPosition = 0;
+        for (AbiParam param : inputs) {
+            if (param.isIndexed()) {
+                if (param.getName().equals(paramName)) {
+                    EthData[] newTopics = Arrays.copyOf(topics, topics.length);
+                    newTopics[indexedPosition] = encodeTopic(param, value);
+                    return new EventFilter<>(ethereumProxy, eventDefinition, newTopics);
+                }
+                indexedPosition++;
+            } else if (param.getName().equals(paramName)) {
+                throw new EthereumApiException("the parameter " + paramName + " is not indexed and cannot be used in a filter");
+            }
+        }
+        throw new EthereumApiException("no indexed parameter " + paramName + " found in the event");
+    }
+
+    private EthData encodeTopic(AbiParam param, Object value) {
+        if (value == null) {
+            throw new EthereumApiException("cannot filter the parameter " + param.getName() + " on a null value");
+        }
+        SolidityTypeDescriptor typeDescriptor = param.getTypeDescriptor();
+        if (typeDescriptor.isDynamic() || typeDescriptor.isArray()) {
+            throw new EthereumApiException("the indexed parameter " + param.getName() + " is stored as a hash and cannot be used in a filter");
+        }
+        SolidityType type = typeDescriptor.getSolidityType()
+                .orElseThrow(() -> new EthereumApiException("unknown type " + param.getType()));
+        SolidityTypeEncoder encoder = ethereumProxy.getEncoderBinding(param).find(value.getClass())
+                .orElseThrow(() -> new EthereumApiException("no encoder found for the parameter " + param.getName() + " and the type " + value.getClass().getName()));
+        return encoder.encode(value, type);
+    }
+
+    /**
+     * @return true if the log is an instance of the event and all its filtered indexed parameters have the expected value
+     */
+    public boolean matches(EventInfo eventInfo) {
+        if (!eventDefinition.match(eventInfo)) {
+            return false;
+        }
+        return matchesTopics(eventInfo);
+    }
+
+    boolean matchesTopics(EventInfo eventInfo) {
+        List<EthData> indexedArguments = eventInfo.getIndexedArguments();
+        for (int i = 0; i < topics.length; i++) {
+            if (topics[i] != null && (i >= indexedArguments.size() || !Arrays.equals(topics[i].data, indexedArguments.get(i).data))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the logs summarized by the bloom certainly contain no log matching the filter
+     */
+    public boolean mightBeIn(EthBloom logsBloom) {
+        return eventDefinition.mightBeIn(logsBloom) && logsBloom.contains(topicsBloom);
+    }
+
+    public SolidityEvent<T> getEventDefinition() {
+        return eventDefinition;
+    }
+}
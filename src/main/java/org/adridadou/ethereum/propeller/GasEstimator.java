@@ -0,0 +1,143 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.values.EthAddress;
+import org.adridadou.ethereum.propeller.values.EthData;
+import org.adridadou.ethereum.propeller.values.GasUsage;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of gas estimates keyed by target contract, function selector and calldata size class.
+ * The margin added to an estimate comes from the gas actually used by the transactions sent with it, and is never below the
+ * default one: calls of the same kind may still use more gas than all the observed ones. Contract creations are never cached.
+ * This code is released under Apache 2 license
+ */
+class GasEstimator {
+    private static final int SELECTOR_SIZE = 4;
+    private static final int MIN_MARGIN_DIVISOR = 10;
+
+    private final int maxSize;
+    private final BigInteger defaultMargin;
+    private final Map<EstimateKey, GasStatistics> estimates;
+
+    GasEstimator(final int maxSize, final int defaultMargin) {
+        this.maxSize = maxSize;
+        this.defaultMargin = BigInteger.valueOf(defaultMargin);
+        this.estimates = new LinkedHashMap<EstimateKey, GasStatistics>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EstimateKey, GasStatistics> eldest) {
+                return size() > GasEstimator.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the gas limit for a transaction, the backend estimation is only called if nothing is known for this kind of call
+     */
+    GasUsage getGasLimit(EthAddress toAddress, EthData data, Supplier<GasUsage> estimation) {
+        if (toAddress.isEmpty()) {
+            return new GasUsage(estimation.get().getUsage().add(defaultMargin));
+        }
+        EstimateKey key = new EstimateKey(toAddress, data);
+        GasStatistics statistics;
+        synchronized (this) {
+            statistics = estimates.get(key);
+        }
+        if (statistics == null) {
+            statistics = new GasStatistics(estimation.get().getUsage());
+            synchronized (this) {
+                GasStatistics existing = estimates.putIfAbsent(key, statistics);
+                statistics = existing != null ? existing : statistics;
+            }
+        }
+        return statistics.getGasLimit(defaultMargin);
+    }
+
+    /**
+     * Records the gas used by a transaction sent to an already estimated call
+     */
+    void observe(EthAddress toAddress, EthData data, GasUsage gasUsed) {
+        if (toAddress.isEmpty() || gasUsed == null) {
+            return;
+        }
+        GasStatistics statistics;
+        synchronized (this) {
+            statistics = estimates.get(new EstimateKey(toAddress, data));
+        }
+        if (statistics != null) {
+            statistics.observe(gasUsed.getUsage());
+        }
+    }
+
+    /**
+     * Drops the estimate of a call, for example because a transaction sent with it failed. Timeouts say nothing about the
+     * gas limit and should not invalidate it
+     */
+    synchronized void invalidate(EthAddress toAddress, EthData data) {
+        if (!toAddress.isEmpty()) {
+            estimates.remove(new EstimateKey(toAddress, data));
+        }
+    }
+
+    private static final class GasStatistics {
+        private final BigInteger estimate;
+        private BigInteger minUsed;
+        private BigInteger maxUsed;
+
+        private GasStatistics(BigInteger estimate) {
+            this.estimate = estimate;
+        }
+
+        private synchronized void observe(BigInteger gasUsed) {
+            minUsed = minUsed == null ? gasUsed : minUsed.min(gasUsed);
+            maxUsed = maxUsed == null ? gasUsed : maxUsed.max(gasUsed);
+        }
+
+        private synchronized GasUsage getGasLimit(BigInteger defaultMargin) {
+            if (maxUsed == null) {
+                return new GasUsage(estimate.add(defaultMargin));
+            }
+            BigInteger margin = maxUsed.subtract(minUsed).max(maxUsed.divide(BigInteger.valueOf(MIN_MARGIN_DIVISOR))).max(defaultMargin);
+            return new GasUsage(estimate.max(maxUsed).add(margin));
+        }
+    }
+
+    private static final class EstimateKey {
+        private final EthAddress toAddress;
+        private final int selector;
+        private final int sizeClass;
+        private final int hashCode;
+
+        private EstimateKey(EthAddress toAddress, EthData data) {
+            this.toAddress = toAddress;
+            this.selector = data.length() < SELECTOR_SIZE ? -1 : readSelector(data.data);
+            this.sizeClass = Integer.SIZE - Integer.numberOfLeadingZeros(data.length());
+            this.hashCode = Objects.hash(toAddress, selector, sizeClass);
+        }
+
+        private static int readSelector(byte[] data) {
+            return (data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8 | (data[3] & 0xFF);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            EstimateKey that = (EstimateKey) o;
+            return selector == that.selector && sizeClass == that.sizeClass && toAddress.equals(that.toAddress);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.adridadou.ethereum.propeller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets a fixed gas limit on a contract interface method. Transactions sent through this method skip the gas estimation.
+ * This code is released under Apache 2 license
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface GasLimit {
+    long value();
+}
@@ -0,0 +1,230 @@
+package org.adridadou.ethereum.propeller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keccak-256 as used by Ethereum (the original Keccak padding, not the SHA3-256 one).
+ * An instance keeps its state between hashes and does not allocate. It is not thread safe,
+ * the static methods use one instance per thread.
+ * This code is released under Apache 2 license
+ */
+public final class Keccak256 {
+    public static final int DIGEST_SIZE = 32;
+    private static final int RATE = 136;
+    private static final int RATE_LANES = RATE / Long.BYTES;
+
+    private static final long[] ROUND_CONSTANTS = {
+            0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+            0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+            0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+            0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+            0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+            0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    private static final ThreadLocal<Keccak256> LOCAL = ThreadLocal.withInitial(Keccak256::new);
+
+    private final long[] state = new long[25];
+    private int position;
+
+    public static byte[] hash(byte[] input) {
+        return hash(input, 0, input.length);
+    }
+
+    public static byte[] hash(byte[] input, int offset, int length) {
+        byte[] output = new byte[DIGEST_SIZE];
+        hash(input, offset, length, output, 0);
+        return output;
+    }
+
+    /**
+     * Hashes a slice of the input and writes the 32 bytes digest in the output, without allocating
+     */
+    public static void hash(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        LOCAL.get().reset().update(input, offset, length).digest(output, outputOffset);
+    }
+
+    /**
+     * Hashes each input with the same state
+     *
+     * @return the digests, in the order of the inputs
+     */
+    public static List<byte[]> hashAll(List<byte[]> inputs) {
+        Keccak256 keccak = LOCAL.get();
+        List<byte[]> result = new ArrayList<>(inputs.size());
+        for (byte[] input : inputs) {
+            byte[] output = new byte[DIGEST_SIZE];
+            keccak.reset().update(input, 0, input.length).digest(output, 0);
+            result.add(output);
+        }
+        return result;
+    }
+
+    /**
+     * Hashes inputs laid out one after the other, writing the digests one after the other
+     *
+     * @param input   The buffer containing all the inputs
+     * @param offsets The offset of each input in the buffer
+     * @param lengths The length of each input
+     * @param output  The buffer receiving the digests, it needs 32 bytes per input
+     */
+    public static void hashAll(byte[] input, int[] offsets, int[] lengths, byte[] output) {
+        if (offsets.length != lengths.length) {
+            throw new IllegalArgumentException("offsets and lengths have different sizes");
+        }
+        Keccak256 keccak = LOCAL.get();
+        for (int i = 0; i < offsets.length; i++) {
+            keccak.reset().update(input, offsets[i], lengths[i]).digest(output, i * DIGEST_SIZE);
+        }
+    }
+
+    public Keccak256 reset() {
+        for (int i = 0; i < state.length; i++) {
+            state[i] = 0;
+        }
+        position = 0;
+        return this;
+    }
+
+    public Keccak256 update(byte[] input, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > input.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " for an input of " + input.length + " bytes");
+        }
+        int index = offset;
+        int end = offset + length;
+        while (index < end) {
+            if ((position & 7) == 0 && end - index >= Long.BYTES) {
+                int lanes = Math.min((end - index) >>> 3, RATE_LANES - (position >>> 3));
+                int lane = position >>> 3;
+                for (int i = 0; i < lanes; i++) {
+                    state[lane + i] ^= readLong(input, index);
+                    index += Long.BYTES;
+                }
+                position += lanes * Long.BYTES;
+            } else {
+                state[position >>> 3] ^= (input[index++] & 0xFFL) << ((position & 7) << 3);
+                position++;
+            }
+            if (position == RATE) {
+                permute(state);
+                position = 0;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes the 32 bytes digest of the data given so far. The instance has to be reset before being used again
+     */
+    public void digest(byte[] output, int outputOffset) {
+        state[position >>> 3] ^= 0x01L << ((position & 7) << 3);
+        state[RATE_LANES - 1] ^= 0x80L << 56;
+        permute(state);
+        for (int i = 0; i < DIGEST_SIZE / Long.BYTES; i++) {
+            writeLong(state[i], output, outputOffset + i * Long.BYTES);
+        }
+    }
+
+    private static long readLong(byte[] input, int offset) {
+        return (input[offset] & 0xFFL)
+                | (input[offset + 1] & 0xFFL) << 8
+                | (input[offset + 2] & 0xFFL) << 16
+                | (input[offset + 3] & 0xFFL) << 24
+                | (input[offset + 4] & 0xFFL) << 32
+                | (input[offset + 5] & 0xFFL) << 40
+                | (input[offset + 6] & 0xFFL) << 48
+                | (input[offset + 7] & 0xFFL) << 56;
+    }
+
+    private static void writeLong(long value, byte[] output, int offset) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            output[offset + i] = (byte) (value >>> (i << 3));
+        }
+    }
+
+    private static void permute(long[] a) {
+        long a00 = a[0], a01 = a[1], a02 = a[2], a03 = a[3], a04 = a[4];
+        long a05 = a[5], a06 = a[6], a07 = a[7], a08 = a[8], a09 = a[9];
+        long a10 = a[10], a11 = a[11], a12 = a[12], a13 = a[13], a14 = a[14];
+        long a15 = a[15], a16 = a[16], a17 = a[17], a18 = a[18], a19 = a[19];
+        long a20 = a[20], a21 = a[21], a22 = a[22], a23 = a[23], a24 = a[24];
+
+        for (int round = 0; round < 24; round++) {
+            // theta
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+            long d0 = c4 ^ Long.rotateLeft(c1, 1);
+            long d1 = c0 ^ Long.rotateLeft(c2, 1);
+            long d2 = c1 ^ Long.rotateLeft(c3, 1);
+            long d3 = c2 ^ Long.rotateLeft(c4, 1);
+            long d4 = c3 ^ Long.rotateLeft(c0, 1);
+
+            // rho and pi, b[y][2x+3y] = rot(a[x][y])
+            long b00 = a00 ^ d0;
+            long b10 = Long.rotateLeft(a01 ^ d1, 1);
+            long b20 = Long.rotateLeft(a02 ^ d2, 62);
+            long b05 = Long.rotateLeft(a03 ^ d3, 28);
+            long b15 = Long.rotateLeft(a04 ^ d4, 27);
+            long b16 = Long.rotateLeft(a05 ^ d0, 36);
+            long b01 = Long.rotateLeft(a06 ^ d1, 44);
+            long b11 = Long.rotateLeft(a07 ^ d2, 6);
+            long b21 = Long.rotateLeft(a08 ^ d3, 55);
+            long b06 = Long.rotateLeft(a09 ^ d4, 20);
+            long b07 = Long.rotateLeft(a10 ^ d0, 3);
+            long b17 = Long.rotateLeft(a11 ^ d1, 10);
+            long b02 = Long.rotateLeft(a12 ^ d2, 43);
+            long b12 = Long.rotateLeft(a13 ^ d3, 25);
+            long b22 = Long.rotateLeft(a14 ^ d4, 39);
+            long b23 = Long.rotateLeft(a15 ^ d0, 41);
+            long b08 = Long.rotateLeft(a16 ^ d1, 45);
+            long b18 = Long.rotateLeft(a17 ^ d2, 15);
+            long b03 = Long.rotateLeft(a18 ^ d3, 21);
+            long b13 = Long.rotateLeft(a19 ^ d4, 8);
+            long b14 = Long.rotateLeft(a20 ^ d0, 18);
+            long b24 = Long.rotateLeft(a21 ^ d1, 2);
+            long b09 = Long.rotateLeft(a22 ^ d2, 61);
+            long b19 = Long.rotateLeft(a23 ^ d3, 56);
+            long b04 = Long.rotateLeft(a24 ^ d4, 14);
+
+            // chi
+            a00 = b00 ^ (~b01 & b02);
+            a01 = b01 ^ (~b02 & b03);
+            a02 = b02 ^ (~b03 & b04);
+            a03 = b03 ^ (~b04 & b00);
+            a04 = b04 ^ (~b00 & b01);
+            a05 = b05 ^ (~b06 & b07);
+            a06 = b06 ^ (~b07 & b08);
+            a07 = b07 ^ (~b08 & b09);
+            a08 = b08 ^ (~b09 & b05);
+            a09 = b09 ^ (~b05 & b06);
+            a10 = b10 ^ (~b11 & b12);
+            a11 = b11 ^ (~b12 & b13);
+            a12 = b12 ^ (~b13 & b14);
+            a13 = b13 ^ (~b14 & b10);
+            a14 = b14 ^ (~b10 & b11);
+            a15 = b15 ^ (~b16 & b17);
+            a16 = b16 ^ (~b17 & b18);
+            a17 = b17 ^ (~b18 & b19);
+            a18 = b18 ^ (~b19 & b15);
+            a19 = b19 ^ (~b15 & b16);
+            a20 = b20 ^ (~b21 & b22);
+            a21 = b21 ^ (~b22 & b23);
+            a22 = b22 ^ (~b23 & b24);
+            a23 = b23 ^ (~b24 & b20);
+            a24 = b24 ^ (~b20 & b21);
+
+            // iota
+            a00 ^= ROUND_CONSTANTS[round];
+        }
+
+        a[0] = a00; a[1] = a01; a[2] = a02; a[3] = a03; a[4] = a04;
+        a[5] = a05; a[6] = a06; a[7] = a07; a[8] = a08; a[9] = a09;
+        a[10] = a10; a[11] = a11; a[12] = a12; a[13] = a13; a[14] = a14;
+        a[15] = a15; a[16] = a16; a[17] = a17; a[18] = a18; a[19] = a19;
+        a[20] = a20; a[21] = a21; a[22] = a22; a[23] = a23; a[24] = a24;
+    }
+}
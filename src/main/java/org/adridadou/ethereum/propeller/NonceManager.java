@@ -0,0 +1,354 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.event.TransactionReceipt;
+import org.adridadou.ethereum.propeller.values.EthAddress;
+import org.adridadou.ethereum.propeller.values.EthHash;
+import org.adridadou.ethereum.propeller.values.Nonce;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Allocates the nonces of the transactions sent by each account.
+ * Concurrent submissions from the same account get strictly increasing nonces without waiting for each other. The nonce of a dropped
+ * transaction is given back and reused by the next submission so that the gap it left is filled.
+ * When the local counter can no longer be trusted (the backend rejected a nonce, a transaction timed out) the account
+ * is re-seeded from the backend in the background. The first nonce of an account is also read in the background, as soon as
+ * the account is known, so that the submissions do not wait for the backend.
+ * This code is released under Apache 2 license
+ */
+class NonceManager {
+    private static final String[] NONCE_ERRORS = {"nonce", "underpriced", "already known", "known transaction"};
+
+    private final Function<EthAddress, Nonce> nonceLoader;
+    private final Executor executor;
+    private final Map<EthAddress, CompletableFuture<AccountNonce>> accounts = new ConcurrentHashMap<>();
+    private final Map<EthHash, PendingNonce> pendingNonces = new ConcurrentHashMap<>();
+    private final Map<EthHash, PendingNonce> expiredNonces = new ConcurrentHashMap<>();
+    private final Set<EthAddress> reloading = ConcurrentHashMap.newKeySet();
+    private final Set<EthAddress> touched = ConcurrentHashMap.newKeySet();
+
+    NonceManager(Function<EthAddress, Nonce> nonceLoader, Executor executor) {
+        this.nonceLoader = nonceLoader;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts reading the nonce of the account from the backend on the executor, if it is not known yet
+     */
+    void preload(EthAddress address) {
+        load(address);
+    }
+
+    /**
+     * @return the nonce the next transaction of this address will get
+     */
+    Nonce getNonce(EthAddress address) {
+        return toNonce(getAccount(address).peek());
+    }
+
+    /**
+     * Allocates a nonce for a new transaction. It has to be either given back with {@link #rejected(EthAddress, Nonce, RuntimeException)}
+     * if the submission fails or registered with {@link #submitted(EthAddress, Nonce, EthHash)}
+     */
+    Nonce allocate(EthAddress address) {
+        return toNonce(getAccount(address).allocate());
+    }
+
+    /**
+     * The backend refused a transaction. If the nonce itself was refused (already used, or used by a pending transaction)
+     * giving it back would make every following submission fail the same way, so the account is re-seeded instead
+     */
+    void rejected(EthAddress address, Nonce nonce, RuntimeException error) {
+        if (isNonceError(error)) {
+            getAccount(address).forget(nonce.getValue().longValueExact());
+            reload(address);
+        } else {
+            getAccount(address).release(nonce.getValue().longValueExact());
+        }
+    }
+
+    void submitted(EthAddress address, Nonce nonce, EthHash hash) {
+        pendingNonces.put(hash, new PendingNonce(address, nonce.getValue().longValueExact()));
+    }
+
+    /**
+     * Removes the transactions of the block from the pending ones. An included transaction with nonce n means that the
+     * network nonce of its sender is at least n + 1, so each sender is aligned right away without waiting for the backend.
+     * The senders with included or dropped transactions since the last block are then reloaded from the backend in the
+     * background, at most once per block, to catch transactions sent from the same key by someone else
+     */
+    void included(List<TransactionReceipt> receipts) {
+        Map<EthAddress, Long> includedNonces = new HashMap<>();
+        for (TransactionReceipt receipt : receipts) {
+            PendingNonce pendingNonce = removePending(receipt.hash);
+            if (pendingNonce != null) {
+                getAccount(pendingNonce.address).forget(pendingNonce.nonce);
+                includedNonces.merge(pendingNonce.address, pendingNonce.nonce + 1, Math::max);
+            }
+        }
+        includedNonces.forEach((address, nonce) -> getAccount(address).sync(nonce));
+        touched.addAll(includedNonces.keySet());
+        for (EthAddress address : touched) {
+            touched.remove(address);
+            reload(address);
+        }
+    }
+
+    /**
+     * A transaction has been dropped, its nonce can be used again. The sender is reloaded with the next block
+     */
+    void dropped(EthHash hash) {
+        PendingNonce pendingNonce = removePending(hash);
+        if (pendingNonce != null) {
+            getAccount(pendingNonce.address).release(pendingNonce.nonce);
+            touched.add(pendingNonce.address);
+        }
+    }
+
+    /**
+     * No receipt arrived for the transaction in time. It may still be mined, so its nonce stays reserved until a block
+     * includes it, the backend reports it dropped or the network nonce of the sender moves past it. The sender is reloaded
+     * with the next block
+     */
+    void expired(EthHash hash) {
+        PendingNonce pendingNonce = pendingNonces.remove(hash);
+        if (pendingNonce != null) {
+            expiredNonces.put(hash, pendingNonce);
+            touched.add(pendingNonce.address);
+        }
+    }
+
+    /**
+     * Reads the nonce of the account from the backend on the executor. Requests for an account that is already being
+     * reloaded are ignored
+     */
+    void reload(EthAddress address) {
+        if (!reloading.add(address)) {
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> nonceLoader.apply(address), executor)
+                .whenComplete((nonce, error) -> {
+                    reloading.remove(address);
+                    if (nonce != null) {
+                        long networkNonce = getAccount(address).reseed(nonce.getValue().longValueExact());
+                        expiredNonces.values().removeIf(expired -> expired.address.equals(address) && expired.nonce < networkNonce);
+                    }
+                });
+    }
+
+    private PendingNonce removePending(EthHash hash) {
+        PendingNonce pendingNonce = pendingNonces.remove(hash);
+        return pendingNonce != null ? pendingNonce : expiredNonces.remove(hash);
+    }
+
+    /**
+     * The backend is called outside of the map so that a slow backend does not block the other accounts
+     */
+    private CompletableFuture<AccountNonce> load(EthAddress address) {
+        CompletableFuture<AccountNonce> account = accounts.get(address);
+        if (account == null) {
+            CompletableFuture<AccountNonce> loading = new CompletableFuture<>();
+            account = accounts.putIfAbsent(address, loading);
+            if (account == null) {
+                account = loading;
+                try {
+                    CompletableFuture.supplyAsync(() -> new AccountNonce(nonceLoader.apply(address).getValue().longValueExact()), executor)
+                            .whenComplete((loaded, error) -> {
+                                if (error != null) {
+                                    loading.completeExceptionally(error);
+                                } else {
+                                    loading.complete(loaded);
+                                }
+                            });
+                } catch (RuntimeException e) {
+                    loading.completeExceptionally(e);
+                }
+            }
+        }
+        return account;
+    }
+
+    /**
+     * Only waits for the backend if the account has not been preloaded. A failed load is forgotten so that the next call tries again
+     */
+    private AccountNonce getAccount(EthAddress address) {
+        CompletableFuture<AccountNonce> account = load(address);
+        try {
+            return account.join();
+        } catch (CompletionException e) {
+            accounts.remove(address, account);
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private Nonce toNonce(long value) {
+        return new Nonce(BigInteger.valueOf(value));
+    }
+
+    private static boolean isNonceError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage() == null ? "" : cause.getMessage().toLowerCase(Locale.ENGLISH);
+            for (String nonceError : NONCE_ERRORS) {
+                if (message.contains(nonceError)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The counter, the gaps and the allocated nonces of the account form one immutable state replaced with compare-and-set,
+     * so that allocations, releases and re-seeds never wait for each other and a re-seed always sees the allocated nonces
+     * and the counter at the same time
+     */
+    private static final class AccountNonce {
+        private final AtomicReference<State> state;
+
+        private AccountNonce(long next) {
+            this.state = new AtomicReference<>(new State(next, 0, Collections.emptyNavigableSet(), Collections.emptyNavigableSet()));
+        }
+
+        private long peek() {
+            return state.get().peek();
+        }
+
+        private long allocate() {
+            while (true) {
+                State current = state.get();
+                long nonce = current.peek();
+                if (state.compareAndSet(current, current.allocate(nonce))) {
+                    return nonce;
+                }
+            }
+        }
+
+        private void release(long nonce) {
+            state.updateAndGet(current -> current.release(nonce));
+        }
+
+        /**
+         * The nonce is no longer held by a local transaction, without being available again
+         */
+        private void forget(long nonce) {
+            state.updateAndGet(current -> current.forget(nonce));
+        }
+
+        private void sync(long networkNonce) {
+            state.updateAndGet(current -> current.sync(networkNonce));
+        }
+
+        /**
+         * Aligns the counter with the nonce read from the backend. Nonces below the counter that the network has not used
+         * and that no local transaction holds become gaps to fill.
+         * A backend lagging behind the blocks already seen may return a nonce below the ones of the included transactions,
+         * the counter is then only moved up to the confirmed nonce so that those nonces do not become gaps
+         *
+         * @return the network nonce the account has been aligned with
+         */
+        private long reseed(long backendNonce) {
+            return Math.max(backendNonce, state.updateAndGet(current -> current.reseed(backendNonce)).confirmed);
+        }
+    }
+
+    private static final class State {
+        private final long next;
+        private final long confirmed;
+        private final NavigableSet<Long> gaps;
+        private final NavigableSet<Long> inUse;
+
+        private State(long next, long confirmed, NavigableSet<Long> gaps, NavigableSet<Long> inUse) {
+            this.next = next;
+            this.confirmed = confirmed;
+            this.gaps = gaps;
+            this.inUse = inUse;
+        }
+
+        private long peek() {
+            return gaps.isEmpty() ? next : gaps.first();
+        }
+
+        private State allocate(long nonce) {
+            return new State(nonce == next ? next + 1 : next, confirmed, without(gaps, nonce), with(inUse, nonce));
+        }
+
+        private State release(long nonce) {
+            NavigableSet<Long> newInUse = without(inUse, nonce);
+            if (nonce >= next || nonce < confirmed) {
+                return new State(next, confirmed, gaps, newInUse);
+            }
+            TreeSet<Long> newGaps = new TreeSet<>(gaps);
+            newGaps.add(nonce);
+            long newNext = next;
+            while (!newGaps.isEmpty() && newGaps.last() == newNext - 1) {
+                newNext = newGaps.pollLast();
+            }
+            return new State(newNext, confirmed, Collections.unmodifiableNavigableSet(newGaps), newInUse);
+        }
+
+        private State forget(long nonce) {
+            return new State(next, confirmed, gaps, without(inUse, nonce));
+        }
+
+        private State sync(long networkNonce) {
+            if (networkNonce <= confirmed && networkNonce <= next) {
+                return this;
+            }
+            return new State(Math.max(next, networkNonce), Math.max(confirmed, networkNonce), from(gaps, networkNonce), from(inUse, networkNonce));
+        }
+
+        private State reseed(long backendNonce) {
+            long networkNonce = Math.max(backendNonce, confirmed);
+            TreeSet<Long> newGaps = new TreeSet<>(gaps.tailSet(networkNonce, true));
+            for (long nonce = networkNonce; nonce < next; nonce++) {
+                if (!inUse.contains(nonce)) {
+                    newGaps.add(nonce);
+                }
+            }
+            return new State(Math.max(next, networkNonce), confirmed, Collections.unmodifiableNavigableSet(newGaps), from(inUse, networkNonce));
+        }
+
+        private static NavigableSet<Long> with(NavigableSet<Long> set, long value) {
+            TreeSet<Long> result = new TreeSet<>(set);
+            result.add(value);
+            return Collections.unmodifiableNavigableSet(result);
+        }
+
+        private static NavigableSet<Long> without(NavigableSet<Long> set, long value) {
+            if (!set.contains(value)) {
+                return set;
+            }
+            TreeSet<Long> result = new TreeSet<>(set);
+            result.remove(value);
+            return Collections.unmodifiableNavigableSet(result);
+        }
+
+        private static NavigableSet<Long> from(NavigableSet<Long> set, long value) {
+            return set.isEmpty() || set.first() >= value ? set : Collections.unmodifiableNavigableSet(new TreeSet<>(set.tailSet(value, true)));
+        }
+    }
+
+    private static final class PendingNonce {
+        private final EthAddress address;
+        private final long nonce;
+
+        private PendingNonce(EthAddress address, long nonce) {
+            this.address = address;
+            this.nonce = nonce;
+        }
+    }
+}
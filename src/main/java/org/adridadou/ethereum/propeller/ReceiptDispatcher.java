@@ -0,0 +1,139 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.event.BlockInfo;
+import org.adridadou.ethereum.propeller.event.EthereumEventHandler;
+import org.adridadou.ethereum.propeller.event.TransactionInfo;
+import org.adridadou.ethereum.propeller.event.TransactionReceipt;
+import org.adridadou.ethereum.propeller.event.TransactionStatus;
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.values.EthHash;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Completes the futures of the submitted transactions when their receipt arrives.
+ * There is a single subscription to the blocks and transactions for all the pending transactions. Each receipt is looked up
+ * by hash and the timeouts are indexed by the block number at which they expire, so no thread is held while waiting.
+ * This code is released under Apache 2 license
+ */
+class ReceiptDispatcher {
+    private final Map<EthHash, PendingReceipt> pendingReceipts = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Set<EthHash>> expirations = new ConcurrentSkipListMap<>();
+    private final long blockWaitLimit;
+    private final Consumer<EthHash> expirationListener;
+
+    /**
+     * @param expirationListener Called with the hash of each transaction whose receipt did not arrive in time
+     */
+    ReceiptDispatcher(EthereumEventHandler eventHandler, long blockWaitLimit, Consumer<EthHash> expirationListener) {
+        this.blockWaitLimit = blockWaitLimit;
+        this.expirationListener = expirationListener;
+        eventHandler.observeBlocks().forEach(this::onBlock, this::onStreamError);
+        eventHandler.observeTransactions()
+                .filter(params -> params.receipt != null && params.status == TransactionStatus.Dropped)
+                .forEach(this::onDropped, this::onStreamError);
+    }
+
+    /**
+     * Starts waiting for the receipt of a transaction
+     *
+     * @param txHash       The hash of the submitted transaction
+     * @param currentBlock The current block number. The future fails if the transaction is not included in the next blockWaitLimit blocks
+     * @return The future receipt
+     */
+    CompletableFuture<TransactionReceipt> watch(EthHash txHash, long currentBlock) {
+        return watch(txHash, currentBlock, receipt -> {
+        });
+    }
+
+    /**
+     * Starts waiting for the receipt of a transaction
+     *
+     * @param txHash          The hash of the submitted transaction
+     * @param currentBlock    The current block number. The future fails if the transaction is not included in the next blockWaitLimit blocks
+     * @param receiptListener Called with the receipt, successful or not, after the future completes. It is not called if the
+     *                        transaction is dropped or times out. An exception thrown by the listener is ignored
+     * @return The future receipt
+     */
+    CompletableFuture<TransactionReceipt> watch(EthHash txHash, long currentBlock, Consumer<TransactionReceipt> receiptListener) {
+        CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+        pendingReceipts.put(txHash, new PendingReceipt(result, receiptListener));
+        expirations.computeIfAbsent(currentBlock + blockWaitLimit, key -> ConcurrentHashMap.newKeySet()).add(txHash);
+        return result;
+    }
+
+    private void onBlock(BlockInfo block) {
+        block.receipts.forEach(receipt -> {
+            PendingReceipt pendingReceipt = pendingReceipts.remove(receipt.hash);
+            if (pendingReceipt != null) {
+                complete(pendingReceipt.result, receipt);
+                notify(pendingReceipt.receiptListener, receipt);
+            }
+        });
+
+        NavigableMap<Long, Set<EthHash>> expired = expirations.headMap(block.blockNumber, false);
+        expired.forEach((expiration, hashes) -> hashes.forEach(hash -> {
+            PendingReceipt pendingReceipt = pendingReceipts.remove(hash);
+            if (pendingReceipt != null) {
+                pendingReceipt.result.completeExceptionally(new EthereumApiException("the transaction has not been included in the last " + blockWaitLimit + " blocks"));
+                notify(expirationListener, hash);
+            }
+        }));
+        expired.clear();
+    }
+
+    private void onDropped(TransactionInfo params) {
+        PendingReceipt pendingReceipt = pendingReceipts.remove(params.receipt.hash);
+        if (pendingReceipt != null) {
+            pendingReceipt.result.completeExceptionally(new EthereumApiException("the transaction has been dropped! - " + params.receipt.error));
+        }
+    }
+
+    /**
+     * The blocks or transactions stream ended with an error, no receipt will arrive for the pending transactions anymore
+     */
+    private void onStreamError(Throwable error) {
+        for (EthHash hash : pendingReceipts.keySet()) {
+            PendingReceipt pendingReceipt = pendingReceipts.remove(hash);
+            if (pendingReceipt != null) {
+                pendingReceipt.result.completeExceptionally(new EthereumApiException("the receipt of the transaction cannot be received anymore", error));
+            }
+        }
+        expirations.clear();
+    }
+
+    /**
+     * The dispatcher is shared by all the pending transactions, a failing listener must not stop the dispatch of the other receipts
+     */
+    private static <T> void notify(Consumer<T> listener, T value) {
+        try {
+            listener.accept(value);
+        } catch (RuntimeException e) {
+            //ignored, see above
+        }
+    }
+
+    private void complete(CompletableFuture<TransactionReceipt> result, TransactionReceipt receipt) {
+        if (receipt.isSuccessful) {
+            result.complete(receipt);
+        } else {
+            result.completeExceptionally(new EthereumApiException("error with the transaction " + receipt.hash + ". error:" + receipt.error));
+        }
+    }
+
+    private static final class PendingReceipt {
+        private final CompletableFuture<TransactionReceipt> result;
+        private final Consumer<TransactionReceipt> receiptListener;
+
+        private PendingReceipt(CompletableFuture<TransactionReceipt> result, Consumer<TransactionReceipt> receiptListener) {
+            this.result = result;
+            this.receiptListener = receiptListener;
+        }
+    }
+}
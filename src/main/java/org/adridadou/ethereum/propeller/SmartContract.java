@@ -6,17 +6,23 @@ import org.adridadou.ethereum.propeller.solidity.SolidityFunction;
 import org.adridadou.ethereum.propeller.solidity.abi.AbiEntry;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.SolidityTypeEncoder;
+import org.adridadou.ethereum.propeller.values.ConstantCall;
 import org.adridadou.ethereum.propeller.values.EthAccount;
 import org.adridadou.ethereum.propeller.values.EthAddress;
 import org.adridadou.ethereum.propeller.values.EthData;
 import org.adridadou.ethereum.propeller.values.EthValue;
+import org.adridadou.ethereum.propeller.values.GasUsage;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.adridadou.ethereum.propeller.values.EthValue.wei;
@@ -27,31 +33,56 @@ import static org.adridadou.ethereum.propeller.values.EthValue.wei;
  */
 public class SmartContract {
     private final EthAddress address;
-    private final EthereumBackend ethereum;
     private final SolidityContractDetails contract;
     private final EthereumProxy proxy;
     private final EthAccount account;
+    private final Map<Method, SolidityFunction> functionsByMethod = new ConcurrentHashMap<>();
+    private List<SolidityFunction> functions;
+    private List<SolidityFunction> constructors;
+    private volatile int registryVersion;
 
-    SmartContract(SolidityContractDetails contract, EthAccount account, EthAddress address, EthereumProxy proxy, EthereumBackend ethereum) {
+    SmartContract(SolidityContractDetails contract, EthAccount account, EthAddress address, EthereumProxy proxy) {
         this.contract = contract;
         this.account = account;
         this.proxy = proxy;
         this.address = address;
-        this.ethereum = ethereum;
+        this.registryVersion = proxy.getRegistryVersion();
     }
 
-    public List<SolidityFunction> getFunctions() {
-        return contract.parseAbi().stream()
-                .filter(entry -> "function".equals(entry.getType()))
-                .map(this::buildFunction)
-                .collect(Collectors.toList());
+    public synchronized List<SolidityFunction> getFunctions() {
+        checkRegistryVersion();
+        if (functions == null) {
+            functions = buildFunctions("function");
+        }
+        return functions;
+    }
+
+    public synchronized List<SolidityFunction> getConstructors() {
+        checkRegistryVersion();
+        if (constructors == null) {
+            constructors = buildFunctions("constructor");
+        }
+        return constructors;
     }
 
-    public List<SolidityFunction> getConstructors() {
-        return contract.parseAbi().stream()
-                .filter(entry -> "constructor".equals(entry.getType()))
+    /**
+     * The functions hold the codecs registered when they were built. They are built again once a codec has been registered
+     */
+    private synchronized void checkRegistryVersion() {
+        int currentVersion = proxy.getRegistryVersion();
+        if (registryVersion != currentVersion) {
+            functions = null;
+            constructors = null;
+            functionsByMethod.clear();
+            registryVersion = currentVersion;
+        }
+    }
+
+    private List<SolidityFunction> buildFunctions(String type) {
+        return Collections.unmodifiableList(contract.parseAbi().stream()
+                .filter(entry -> type.equals(entry.getType()))
                 .map(this::buildFunction)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     private SolidityFunction buildFunction(AbiEntry entry) {
@@ -71,13 +102,44 @@ public class SmartContract {
     }
 
     Object callConstFunction(Method method, EthValue value, Object... args) {
-        return getFunction(method).map(func -> {
-            EthData data = func.encode(args);
-            if (method.getGenericReturnType() instanceof Class && proxy.isVoidType((Class<?>) method.getGenericReturnType())) {
-                return null;
-            }
-            return func.decode(ethereum.constantCall(account, address, value, data), method.getGenericReturnType());
-        }).orElseThrow(() -> new EthereumApiException("could not find the function " + method.getName() + " that maches the arguments"));
+        return getFunction(method)
+                .map(func -> callConstFunction(func, method.getGenericReturnType(), value, args))
+                .orElseThrow(() -> new EthereumApiException("could not find the function " + method.getName() + " that maches the arguments"));
+    }
+
+    Object callConstFunction(SolidityFunction func, Type returnType, EthValue value, Object... args) {
+        EthData data = func.encode(args);
+        if (isVoidType(returnType)) {
+            return null;
+        }
+        return func.decode(proxy.constantCall(account, address, value, data), returnType);
+    }
+
+    CompletableFuture<Object> callConstFunctionAsync(SolidityFunction func, Type returnType, EthValue value, Object... args) {
+        EthData data = func.encode(args);
+        if (isVoidType(returnType)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return proxy.constantCallAsync(account, address, value, data)
+                .thenApply(result -> func.decode(result, returnType));
+    }
+
+    /**
+     * Prepares a constant call without executing it, so that it can be sent with other calls in a batch
+     */
+    ConstantCall prepareConstCall(SolidityFunction func, EthValue value, Object... args) {
+        return new ConstantCall(account, address, value, func.encode(args));
+    }
+
+    Object decodeConstResult(SolidityFunction func, Type returnType, EthData result) {
+        if (isVoidType(returnType)) {
+            return null;
+        }
+        return func.decode(result, returnType);
+    }
+
+    private boolean isVoidType(Type returnType) {
+        return returnType instanceof Class && proxy.isVoidType((Class<?>) returnType);
     }
 
     CompletableFuture<?> callFunction(Method method, Object... args) {
@@ -89,17 +151,35 @@ public class SmartContract {
     }
 
     CompletableFuture<?> callFunction(EthValue value, Method method, Object... args) {
-        return getFunction(method).map(func -> {
-            EthData functionCallBytes = func.encode(args);
-            return proxy.sendTx(value, functionCallBytes, account, address)
-                    .thenApply(receipt -> {
-                        Class<?> returnType = getGenericType(method.getGenericReturnType());
-                        if (proxy.isVoidType(returnType)) {
-                            return null;
-                        }
-                        return func.decode(receipt.getResult(), returnType);
-                    });
-        }).orElseThrow(() -> new EthereumApiException("function " + method.getName() + " cannot be found. available:" + getAvailableFunctions()));
+        return getFunction(method)
+                .map(func -> callFunction(func, getGenericType(method.getGenericReturnType()), value, getFixedGasLimit(method), args))
+                .orElseThrow(() -> new EthereumApiException("function " + method.getName() + " cannot be found. available:" + getAvailableFunctions()));
+    }
+
+    /**
+     * Sends a transaction to an already resolved function
+     *
+     * @param func       The function to call
+     * @param resultType The type of the future's result, null if the result should be ignored
+     * @param value      The value to send with the transaction
+     * @param gasLimit   The fixed gas limit, null if the gas should be estimated
+     * @param args       The function arguments
+     * @return The future result
+     */
+    CompletableFuture<?> callFunction(SolidityFunction func, Class<?> resultType, EthValue value, GasUsage gasLimit, Object... args) {
+        EthData functionCallBytes = func.encode(args);
+        return proxy.sendTx(value, functionCallBytes, account, address, gasLimit)
+                .thenApply(receipt -> {
+                    if (resultType == null || proxy.isVoidType(resultType)) {
+                        return null;
+                    }
+                    return func.decode(receipt.getResult(), resultType);
+                });
+    }
+
+    static GasUsage getFixedGasLimit(Method method) {
+        GasLimit gasLimit = method.getAnnotation(GasLimit.class);
+        return gasLimit == null ? null : new GasUsage(BigInteger.valueOf(gasLimit.value()));
     }
 
     private String getAvailableFunctions() {
@@ -112,10 +192,21 @@ public class SmartContract {
         return address;
     }
 
-    private Optional<SolidityFunction> getFunction(Method method) {
+    EthAccount getAccount() {
+        return account;
+    }
+
+    Optional<SolidityFunction> getFunction(Method method) {
+        if (registryVersion != proxy.getRegistryVersion()) {
+            checkRegistryVersion();
+        }
+        return Optional.ofNullable(functionsByMethod.computeIfAbsent(method, this::findFunction));
+    }
+
+    private SolidityFunction findFunction(Method method) {
         return getFunctions().stream()
                 .filter(function -> method.getName().equals(function.getName()) && function.matchParams(method.getParameterTypes()))
-                .findFirst();
+                .findFirst().orElse(null);
     }
 
     Optional<SolidityFunction> getConstructor(Object[] args) {
@@ -124,6 +215,9 @@ public class SmartContract {
     }
 
     private Class<?> getGenericType(Type genericType) {
-        return (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
+        if (genericType instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
+        }
+        return null;
     }
 }
@@ -0,0 +1,59 @@
+package org.adridadou.ethereum.propeller;
+
+import org.adridadou.ethereum.propeller.converters.future.FutureConverter;
+import org.adridadou.ethereum.propeller.solidity.SolidityFunction;
+import org.adridadou.ethereum.propeller.values.GasUsage;
+
+import java.lang.reflect.Type;
+
+/**
+ * Immutable dispatch entry of a contract interface method.
+ * It is resolved once when the proxy is registered so that a call only needs to look it up
+ * instead of matching the method against the ABI again.
+ * This code is released under Apache 2 license
+ */
+final class SmartContractMethod {
+    enum CallType {
+        Constant, FutureConstant, Transaction, FutureTransaction, PayableTransaction
+    }
+
+    private final SolidityFunction function;
+    private final CallType callType;
+    private final FutureConverter converter;
+    private final Type resultType;
+    private final GasUsage gasLimit;
+
+    SmartContractMethod(SolidityFunction function, CallType callType, FutureConverter converter, Type resultType, GasUsage gasLimit) {
+        this.function = function;
+        this.callType = callType;
+        this.converter = converter;
+        this.resultType = resultType;
+        this.gasLimit = gasLimit;
+    }
+
+    SolidityFunction getFunction() {
+        return function;
+    }
+
+    CallType getCallType() {
+        return callType;
+    }
+
+    FutureConverter getConverter() {
+        return converter;
+    }
+
+    /**
+     * @return the type the result is decoded to. For transactions this is the type wrapped by the future, null if the result is ignored
+     */
+    Type getResultType() {
+        return resultType;
+    }
+
+    /**
+     * @return the fixed gas limit set with {@link GasLimit}, null if the gas has to be estimated
+     */
+    GasUsage getGasLimit() {
+        return gasLimit;
+    }
+}
@@ -1,16 +1,50 @@
 package org.adridadou.ethereum.propeller.event;
 
+import org.adridadou.ethereum.propeller.values.EthBloom;
+
 import java.util.List;
 
 public class BlockInfo {
     public final long blockNumber;
     public final List<TransactionReceipt> receipts;
+    /**
+     * logs bloom, null if the backend does not report it
+     */
+    public final EthBloom bloom;
+    private volatile EthBloom computedBloom;
 
     public BlockInfo(long blockNumber, List<TransactionReceipt> receipts) {
+        this(blockNumber, receipts, null);
+    }
+
+    public BlockInfo(long blockNumber, List<TransactionReceipt> receipts, EthBloom bloom) {
         this.blockNumber = blockNumber;
         this.receipts = receipts;
+        this.bloom = bloom;
     }
 
+    /**
+     * @return the bloom reported by the backend or, if there is none, the union of the receipts' blooms computed once.
+     * Null if the bloom of one of the receipts cannot be computed, see {@link TransactionReceipt#getBloom()}
+     */
+    public EthBloom getBloom() {
+        if (bloom != null) {
+            return bloom;
+        }
+        EthBloom result = computedBloom;
+        if (result == null) {
+            result = EthBloom.empty();
+            for (TransactionReceipt receipt : receipts) {
+                EthBloom receiptBloom = receipt.getBloom();
+                if (receiptBloom == null) {
+                    return null;
+                }
+                result = result.or(receiptBloom);
+            }
+            computedBloom = result;
+        }
+        return result;
+    }
 
     @Override
     public String toString() {
@@ -1,10 +1,13 @@
 package org.adridadou.ethereum.propeller.event;
 
 import org.adridadou.ethereum.propeller.values.EthAddress;
+import org.adridadou.ethereum.propeller.values.EthBloom;
 import org.adridadou.ethereum.propeller.values.EthData;
 import org.adridadou.ethereum.propeller.values.EthHash;
 import org.adridadou.ethereum.propeller.values.EventInfo;
+import org.adridadou.ethereum.propeller.values.GasUsage;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,8 +23,25 @@ public class TransactionReceipt {
     public final EthData executionResult;
     public final boolean isSuccessful;
     public final List<EventInfo> events;
+    /**
+     * gas used by the transaction, null if the backend does not report it
+     */
+    public final GasUsage gasUsed;
+    /**
+     * logs bloom, null if the backend does not report it
+     */
+    public final EthBloom bloom;
+    private volatile EthBloom computedBloom;
 
     public TransactionReceipt(EthHash hash, EthAddress sender, EthAddress receiveAddress, EthAddress contractAddress, String error, EthData executionResult, boolean isSuccessful, List<EventInfo> events) {
+        this(hash, sender, receiveAddress, contractAddress, error, executionResult, isSuccessful, events, null);
+    }
+
+    public TransactionReceipt(EthHash hash, EthAddress sender, EthAddress receiveAddress, EthAddress contractAddress, String error, EthData executionResult, boolean isSuccessful, List<EventInfo> events, GasUsage gasUsed) {
+        this(hash, sender, receiveAddress, contractAddress, error, executionResult, isSuccessful, events, gasUsed, null);
+    }
+
+    public TransactionReceipt(EthHash hash, EthAddress sender, EthAddress receiveAddress, EthAddress contractAddress, String error, EthData executionResult, boolean isSuccessful, List<EventInfo> events, GasUsage gasUsed, EthBloom bloom) {
         this.hash = hash;
         this.sender = sender;
         this.receiveAddress = receiveAddress;
@@ -30,6 +50,30 @@ public class TransactionReceipt {
         this.executionResult = executionResult;
         this.isSuccessful = isSuccessful;
         this.events = events;
+        this.gasUsed = gasUsed;
+        this.bloom = bloom;
+    }
+
+    /**
+     * @return the bloom reported by the backend or, if there is none, the bloom computed once from the events. It cannot be
+     * computed, and null is returned, if the backend reports neither the bloom nor the emitter of each event
+     */
+    public EthBloom getBloom() {
+        if (bloom != null) {
+            return bloom;
+        }
+        EthBloom result = computedBloom;
+        if (result == null) {
+            List<EventInfo> logs = events == null ? Collections.emptyList() : events;
+            if (logs.stream().anyMatch(event -> event.getEmitter() == null)) {
+                return null;
+            }
+            result = logs.stream()
+                    .map(event -> EthBloom.of(event.getEmitter(), Collections.singletonList(event)))
+                    .reduce(EthBloom.empty(), EthBloom::or);
+            computedBloom = result;
+        }
+        return result;
     }
 
     @Override
@@ -42,6 +86,7 @@ public class TransactionReceipt {
                 ", error='" + error + '\'' +
                 ", executionResult=" + executionResult +
                 ", isSuccessful=" + isSuccessful +
+                ", gasUsed=" + (gasUsed == null ? null : gasUsed.getUsage()) +
                 '}';
     }
 }
@@ -1,7 +1,10 @@
 package org.adridadou.ethereum.propeller.solidity;
 
 import org.adridadou.ethereum.propeller.solidity.abi.AbiEntry;
+import org.adridadou.ethereum.propeller.solidity.abi.AbiParam;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+import org.adridadou.ethereum.propeller.values.EthBloom;
+import org.adridadou.ethereum.propeller.values.EthData;
 import org.adridadou.ethereum.propeller.values.EventInfo;
 
 import java.util.List;
@@ -14,22 +17,55 @@ public class SolidityEvent<T> {
     private final AbiEntry description;
     private final List<List<SolidityTypeDecoder>> decoders;
     private final Class<T> entityClass;
+    private final EthData signature;
+    private final EthData signatureLong;
+    private final EthBloom bloom;
+    private final EthBloom shortBloom;
 
     public SolidityEvent(AbiEntry description, List<List<SolidityTypeDecoder>> decoders, Class<T> entityClass) {
         this.description = description;
         this.decoders = decoders;
         this.entityClass = entityClass;
+        this.signature = description.signature();
+        this.signatureLong = description.signatureLong();
+        this.bloom = EthBloom.empty().with(signatureLong);
+        this.shortBloom = EthBloom.empty().with(signature);
+    }
+
+    /**
+     * @return false if the logs summarized by the bloom certainly contain no instance of this event
+     */
+    public boolean mightBeIn(EthBloom logsBloom) {
+        return logsBloom.contains(bloom) || logsBloom.contains(shortBloom);
     }
 
     public boolean match(EventInfo data) {
-        return data.getEventSignature().equals(description.signature()) || data.getEventSignature().equals(description.signatureLong());
+        EthData eventSignature = data.getEventSignature();
+        return eventSignature.equals(signatureLong) || eventSignature.equals(signature);
+    }
 
+    /**
+     * @return the first topic of the logs of this event
+     */
+    public EthData getTopic() {
+        return signatureLong;
+    }
+
+    /**
+     * @return the 4 bytes signature, which is also accepted as event signature by {@link #match(EventInfo)}
+     */
+    public EthData getShortTopic() {
+        return signature;
     }
 
     public T parseEvent(EventInfo eventInfo, Class<T> clsResult) {
         return (T) description.decode(eventInfo, decoders, clsResult);
     }
 
+    public List<AbiParam> getInputs() {
+        return description.getInputs();
+    }
+
     public Class<T> getEntityClass() {
         return entityClass;
     }
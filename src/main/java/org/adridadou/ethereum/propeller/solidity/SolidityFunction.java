@@ -3,13 +3,14 @@ package org.adridadou.ethereum.propeller.solidity;
 import org.adridadou.ethereum.propeller.exception.EthereumApiException;
 import org.adridadou.ethereum.propeller.solidity.abi.AbiEntry;
 import org.adridadou.ethereum.propeller.solidity.abi.AbiParam;
+import org.adridadou.ethereum.propeller.solidity.converters.CodecBinding;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.NumberEncoder;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.SolidityTypeEncoder;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.lang.reflect.Type;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,15 +21,16 @@ import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
  * This code is released under Apache 2 license
  */
 public class SolidityFunction {
-    private final NumberEncoder numberEncoder = new NumberEncoder();
     private final AbiEntry description;
     private final List<List<SolidityTypeEncoder>> encoders;
     private final List<List<SolidityTypeDecoder>> decoders;
+    private final List<CodecBinding<SolidityTypeEncoder>> encoderBindings;
 
     public SolidityFunction(AbiEntry abiEntry, List<List<SolidityTypeEncoder>> encoders, List<List<SolidityTypeDecoder>> decoders) {
         this.description = abiEntry;
         this.encoders = encoders;
         this.decoders = decoders;
+        this.encoderBindings = encoders.stream().map(CodecBinding::encoders).collect(Collectors.toList());
     }
 
     public String getName() {
@@ -41,7 +43,7 @@ public class SolidityFunction {
         }
         for (int i = 0; i < args.length; i++) {
             final Object arg = args[i];
-            if (arg != null && encoders.get(i).stream().noneMatch(encoder -> encoder.canConvert(arg.getClass()))) {
+            if (arg != null && !encoderBindings.get(i).find(arg.getClass()).isPresent()) {
                 return false;
             }
         }
@@ -54,45 +56,74 @@ public class SolidityFunction {
         }
         for (int i = 0; i < types.length; i++) {
             final Class<?> type = types[i];
-            if (encoders.get(i).stream().noneMatch(encoder -> encoder.canConvert(type))) {
+            if (!encoderBindings.get(i).find(type).isPresent()) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Encodes the call data in one pass: the size of the head and tail sections is computed first,
+     * then every value is written into a single buffer of that size
+     */
     public EthData encode(Object... args) {
-        EthData result = description.signature();
-        Integer dynamicIndex = args.length * WORD_SIZE;
-        List<EthData> dynamicData = new ArrayList<>();
+        byte[] signature = description.signature().data;
+        SolidityTypeEncoder[] argEncoders = new SolidityTypeEncoder[args.length];
+        SolidityType[] solidityTypes = new SolidityType[args.length];
+        int[] sizes = new int[args.length];
+        boolean[] dynamic = new boolean[args.length];
+        int headSize = 0;
+        int tailSize = 0;
         for (int i = 0; i < args.length; i++) {
             final Object arg = args[i];
             if (arg != null) {
-                SolidityTypeEncoder encoder = encoders.get(i).stream()
-                        .filter(enc -> enc.canConvert(arg.getClass()))
-                        .findFirst().orElseThrow(() -> new EthereumApiException("encoder could not be found. Serious bug detected!!"));
-                AbiParam param = description.getInputs().get(i);
-                SolidityType solidityType = SolidityType.find(param.getType()).orElseThrow(() -> new EthereumApiException("unknown solidity type " + description.getType()));
-                if (solidityType.isDynamic || param.isDynamic()) {
-                    result = result.merge(numberEncoder.encode(dynamicIndex, SolidityType.UINT));
-                    EthData dynamicEncode = encoder.encode(arg, solidityType);
-                    dynamicIndex += dynamicEncode.length();
-                    dynamicData.add(dynamicEncode);
+                argEncoders[i] = encoderBindings.get(i).find(arg.getClass())
+                        .orElseThrow(() -> new EthereumApiException("encoder could not be found. Serious bug detected!!"));
+                SolidityTypeDescriptor typeDescriptor = description.getInputs().get(i).getTypeDescriptor();
+                solidityTypes[i] = typeDescriptor.getSolidityType().orElseThrow(() -> new EthereumApiException("unknown solidity type " + typeDescriptor.getType()));
+                dynamic[i] = typeDescriptor.isDynamic();
+                sizes[i] = argEncoders[i].encodedSize(arg, solidityTypes[i]);
+                if (dynamic[i]) {
+                    headSize += WORD_SIZE;
+                    tailSize += sizes[i];
                 } else {
-                    result = result.merge(encoder.encode(arg, solidityType));
+                    headSize += sizes[i];
                 }
             }
         }
 
-        return dynamicData.stream().reduce(result, EthData::merge);
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length + headSize + tailSize);
+        buffer.put(signature);
+        int dynamicIndex = headSize;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] != null) {
+                if (dynamic[i]) {
+                    NumberEncoder.writeWord(dynamicIndex, buffer);
+                    dynamicIndex += sizes[i];
+                } else {
+                    argEncoders[i].encode(args[i], solidityTypes[i], buffer);
+                }
+            }
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] != null && dynamic[i]) {
+                argEncoders[i].encode(args[i], solidityTypes[i], buffer);
+            }
+        }
+        if (buffer.hasRemaining()) {
+            throw new EthereumApiException("the encoded size of the arguments of " + getName() + " does not match the written data");
+        }
+
+        return EthData.of(buffer.array());
     }
 
     public boolean isConstant() {
-        return description.isConstant();
+        return Boolean.TRUE.equals(description.isConstant());
     }
 
     public boolean isPayable() {
-        return description.isPayable();
+        return Boolean.TRUE.equals(description.isPayable());
     }
 
     @Override
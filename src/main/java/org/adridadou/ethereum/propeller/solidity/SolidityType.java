@@ -1,6 +1,8 @@
 package org.adridadou.ethereum.propeller.solidity;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -12,6 +14,14 @@ public enum SolidityType {
     INT, INT8, INT16, INT32, INT64, INT128, INT256,
     BOOL, STRING(true), ARRAY(true), BYTES(true), ADDRESS, BYTES32;
 
+    private static final Map<String, SolidityType> BY_NAME = new HashMap<>();
+
+    static {
+        for (SolidityType value : values()) {
+            BY_NAME.put(value.name().toLowerCase(Locale.ENGLISH), value);
+        }
+    }
+
     public final boolean isDynamic;
 
     SolidityType() {
@@ -24,9 +34,16 @@ public enum SolidityType {
 
     }
 
+    /**
+     * Finds the type by its exact name. Use {@link SolidityTypeDescriptor} to resolve ABI type names such as uint24 or bytes4
+     */
     public static Optional<SolidityType> find(String type) {
-        final String typeToSearch = type.contains("[") ? type.substring(0, type.indexOf("[")) : type;
-        return Arrays.stream(values())
-                .filter(value -> value.name().equalsIgnoreCase(typeToSearch)).findFirst();
+        int bracket = type.indexOf('[');
+        String typeToSearch = bracket < 0 ? type : type.substring(0, bracket);
+        SolidityType result = BY_NAME.get(typeToSearch);
+        if (result == null) {
+            result = BY_NAME.get(typeToSearch.toLowerCase(Locale.ENGLISH));
+        }
+        return Optional.ofNullable(result);
     }
 }
@@ -0,0 +1,208 @@
+package org.adridadou.ethereum.propeller.solidity;
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
+/**
+ * A solidity type name parsed once: base type, bit width and array dimensions. Type names are case insensitive.
+ * <pre>
+ * uint24      base uint, 24 bits, no dimension
+ * bytes4      base bytes, 32 bits, no dimension
+ * int8[2][]   base int, 8 bits, dimensions [2, DYNAMIC], a dynamic array of int8[2]
+ * </pre>
+ * Descriptors are immutable and shared between all the parameters with the same type name.
+ * This code is released under Apache 2 license
+ */
+public final class SolidityTypeDescriptor {
+    public static final int DYNAMIC = -1;
+    private static final Map<String, SolidityTypeDescriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+
+    private final String type;
+    private final String baseType;
+    private final int bits;
+    private final int[] dimensions;
+    private final SolidityType solidityType;
+    private final boolean dynamic;
+    private final int staticSize;
+
+    private SolidityTypeDescriptor(String type, String elementType, String baseType, int bits, int[] dimensions) {
+        this.type = type;
+        this.baseType = baseType;
+        this.bits = bits;
+        this.dimensions = dimensions;
+        this.solidityType = resolveSolidityType(elementType, baseType, bits);
+        boolean baseDynamic = "string".equals(baseType) || ("bytes".equals(baseType) && bits == 0);
+        this.dynamic = baseDynamic || Arrays.stream(dimensions).anyMatch(dimension -> dimension == DYNAMIC);
+        this.staticSize = dynamic ? WORD_SIZE : WORD_SIZE * Arrays.stream(dimensions).reduce(1, (a, b) -> a * b);
+    }
+
+    /**
+     * @param type The type name as found in the ABI, for example uint256 or address[]
+     * @return The descriptor, parsed on the first request for this type name
+     */
+    public static SolidityTypeDescriptor of(String type) {
+        SolidityTypeDescriptor descriptor = DESCRIPTORS.get(type);
+        if (descriptor == null) {
+            descriptor = DESCRIPTORS.computeIfAbsent(type, SolidityTypeDescriptor::parse);
+        }
+        return descriptor;
+    }
+
+    private static SolidityTypeDescriptor parse(String type) {
+        int bracket = type.indexOf('[');
+        String elementType = (bracket < 0 ? type : type.substring(0, bracket)).toLowerCase(Locale.ENGLISH);
+        int[] dimensions = bracket < 0 ? new int[0] : parseDimensions(type, bracket);
+        int digits = elementType.length();
+        while (digits > 0 && Character.isDigit(elementType.charAt(digits - 1))) {
+            digits--;
+        }
+        String baseType = elementType.substring(0, digits);
+        Integer size = digits < elementType.length() ? Integer.valueOf(elementType.substring(digits)) : null;
+        return new SolidityTypeDescriptor(type, elementType, baseType, bits(baseType, size), dimensions);
+    }
+
+    private static int[] parseDimensions(String type, int bracket) {
+        int[] dimensions = new int[type.length() - type.replace("[", "").length()];
+        int index = bracket;
+        for (int i = 0; i < dimensions.length; i++) {
+            int end = type.indexOf(']', index);
+            if (end < 0 || type.charAt(index) != '[') {
+                throw new EthereumApiException("invalid array type " + type);
+            }
+            try {
+                dimensions[i] = end == index + 1 ? DYNAMIC : Integer.parseInt(type.substring(index + 1, end));
+            } catch (NumberFormatException e) {
+                throw new EthereumApiException("invalid array size in " + type, e);
+            }
+            index = end + 1;
+        }
+        if (index != type.length()) {
+            throw new EthereumApiException("invalid array type " + type);
+        }
+        return dimensions;
+    }
+
+    private static int bits(String baseType, Integer size) {
+        switch (baseType) {
+            case "uint":
+            case "int":
+                return size == null ? 256 : size;
+            case "bytes":
+                return size == null ? 0 : size * 8;
+            case "address":
+                return 160;
+            case "bool":
+                return 8;
+            default:
+                return size == null ? 0 : size;
+        }
+    }
+
+    private static SolidityType resolveSolidityType(String elementType, String baseType, int bits) {
+        Optional<SolidityType> exactType = SolidityType.find(elementType);
+        if (exactType.isPresent()) {
+            return exactType.get();
+        }
+        switch (baseType) {
+            case "uint":
+                return SolidityType.UINT;
+            case "int":
+                return SolidityType.INT;
+            case "bytes":
+                return bits <= 256 ? SolidityType.BYTES32 : null;
+            default:
+                return null;
+        }
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return the type name without the size and the dimensions, for example uint for uint24[]
+     */
+    public String getBaseType() {
+        return baseType;
+    }
+
+    /**
+     * @return the width of the element type in bits, 0 for string and bytes
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * @return the codec type of the elements, empty if the type is not supported by the codecs.
+     * Integers of any width use the closest integer type and fixed size byte arrays use bytes32
+     */
+    public Optional<SolidityType> getSolidityType() {
+        return Optional.ofNullable(solidityType);
+    }
+
+    public boolean isArray() {
+        return dimensions.length > 0;
+    }
+
+    /**
+     * @return the number of array dimensions
+     */
+    public int getDimensionCount() {
+        return dimensions.length;
+    }
+
+    /**
+     * @return the size of a dimension, in declaration order, or {@link #DYNAMIC}
+     */
+    public int getDimension(int index) {
+        return dimensions[index];
+    }
+
+    /**
+     * @return true if the value is encoded in the tail of the call data, with its offset in the head
+     */
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    /**
+     * @return the size of the outermost array, null if it is dynamic and 0 if the type is not an array
+     */
+    public Integer getArraySize() {
+        if (!isArray()) {
+            return 0;
+        }
+        int size = dimensions[dimensions.length - 1];
+        return size == DYNAMIC ? null : size;
+    }
+
+    /**
+     * @return the number of bytes the value takes in the head of the call data
+     */
+    public int getStaticSize() {
+        return staticSize;
+    }
+
+    /**
+     * @return the type of the elements of the outermost array
+     */
+    public SolidityTypeDescriptor getElementType() {
+        if (!isArray()) {
+            throw new EthereumApiException(type + " is not an array");
+        }
+        return of(type.substring(0, type.lastIndexOf('[')));
+    }
+
+    @Override
+    public String toString() {
+        return type;
+    }
+}
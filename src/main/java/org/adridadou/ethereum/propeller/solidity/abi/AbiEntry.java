@@ -9,13 +9,14 @@ import org.adridadou.ethereum.propeller.values.EventInfo;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.adridadou.ethereum.propeller.Crypto.sha3;
@@ -32,6 +33,10 @@ public class AbiEntry {
     private final List<AbiParam> inputs;
     private final List<AbiParam> outputs;
     private final String type;
+    private volatile EthData signature;
+    private volatile EthData signatureLong;
+    private final Map<Class<?>, ResultConstructor> resultConstructors = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ResultDecoder> resultDecoders = new ConcurrentHashMap<>();
 
     public AbiEntry() {
         this(null, null, null, null, null, null, null);
@@ -49,8 +54,15 @@ public class AbiEntry {
 
     public static List<AbiEntry> parse(final String json) {
         try {
-            return new ObjectMapper().readValue(json, new TypeReference<List<AbiEntry>>() {
+            List<AbiEntry> entries = new ObjectMapper().readValue(json, new TypeReference<List<AbiEntry>>() {
             });
+            entries.forEach(entry -> {
+                entry.signature();
+                entry.signatureLong();
+                Optional.ofNullable(entry.getInputs()).ifPresent(params -> params.forEach(AbiParam::getTypeDescriptor));
+                Optional.ofNullable(entry.getOutputs()).ifPresent(params -> params.forEach(AbiParam::getTypeDescriptor));
+            });
+            return entries;
         } catch (IOException e) {
             throw new EthereumApiException("error while deserialising ABI", e);
         }
@@ -84,44 +96,34 @@ public class AbiEntry {
         return type;
     }
 
-    public Object decode(EventInfo eventInfo, List<List<SolidityTypeDecoder>> decoders, Type resultCls) {
-        return findConstructor(decoders, (Class<?>) resultCls)
-                .map(constructor -> {
-                    try {
-                        Class[] resultClasses = constructor.getParameterTypes();
-                        Type[] resultTypes = constructor.getGenericParameterTypes();
-
-                        Object[] decodeResult = new Object[decoders.size()];
+    public Object decode(EventInfo eventInfo, List<List<SolidityTypeDecoder>> decoders, Type resultType) {
+        Class<?> resultCls = (Class<?>) resultType;
+        ResultConstructor constructor = getResultConstructor(decoders, resultCls)
+                .orElseThrow(() -> new EthereumApiException("could not find decoder for " + resultCls.getTypeName()));
 
-                        int indexed = 0;
-                        int unindexed = 0;
+        Object[] decodeResult = new Object[constructor.size()];
 
-                        for (int i = 0; i < decoders.size(); i++) {
-                            AbiParam param = inputs.get(i);
-                            final Type resultType = resultTypes[i];
-                            final Class inputCls = resultClasses[i];
+        int indexed = 0;
+        int unindexed = 0;
 
-                            SolidityTypeDecoder decoder = decoders.get(i).stream()
-                                    .filter(encoder -> encoder.canDecode(inputCls))
-                                    .findFirst().orElseThrow(() -> new EthereumApiException("could not find decoder for " + resultType.getTypeName() + " serious bug detected!"));
+        for (int i = 0; i < decodeResult.length; i++) {
+            AbiParam param = inputs.get(i);
+            SolidityTypeDecoder decoder = constructor.getDecoder(i);
+            Type argType = constructor.getType(i);
 
-                            if (param.isIndexed()) {
-                                if (param.isDynamic()) {
-                                    decodeResult[i] = decoder.decode(0, EthData.empty(), resultType);
-                                } else {
-                                    decodeResult[i] = decoder.decode(0, eventInfo.getIndexedArguments().get(indexed), resultType);
-                                }
-                                indexed++;
-                            } else {
-                                decodeResult[i] = decoder.decode(unindexed++, eventInfo.getEventArguments(), resultType);
-                            }
-                        }
+            if (param.isIndexed()) {
+                if (param.isDynamic()) {
+                    decodeResult[i] = decoder.decode(0, EthData.empty(), argType);
+                } else {
+                    decodeResult[i] = decoder.decode(0, eventInfo.getIndexedArguments().get(indexed), argType);
+                }
+                indexed++;
+            } else {
+                decodeResult[i] = decoder.decode(unindexed++, eventInfo.getEventArguments(), argType);
+            }
+        }
 
-                        return constructor.newInstance(decodeResult);
-                    } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
-                        throw new EthereumApiException("error while creating a new instance of " + resultCls.getTypeName());
-                    }
-                }).orElseThrow(() -> new EthereumApiException("could not find decoder for " + resultCls.getTypeName()));
+        return constructor.newInstance(decodeResult);
     }
 
     public Object decode(EthData data, List<List<SolidityTypeDecoder>> decoders, Type resultType) {
@@ -132,8 +134,7 @@ public class AbiEntry {
         }
 
         if (decoders.size() == 1) {
-            Optional<SolidityTypeDecoder> optDecoder = decoders.get(0).stream().filter(dec -> dec.canDecode(resultCls))
-                    .findFirst();
+            Optional<SolidityTypeDecoder> optDecoder = getResultDecoder(decoders.get(0), resultCls);
 
             return optDecoder
                     .map(decoder -> decoder.decode(0, data, resultType))
@@ -145,33 +146,73 @@ public class AbiEntry {
     }
 
     private Object decodeFromConstructor(EthData data, List<List<SolidityTypeDecoder>> decoders, Class<?> resultCls) {
-        return findConstructor(decoders, (Class<?>) resultCls)
-                .map(constructor -> {
-                    try {
-                        return constructor.newInstance(decodeInternal(data, decoders, constructor.getParameterTypes(), constructor.getGenericParameterTypes()));
-                    } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
-                        throw new EthereumApiException("error while creating a new instance of " + resultCls.getTypeName());
-                    }
-                }).orElseThrow(() -> new EthereumApiException("could not find decoder for (" + printOutputs() + ") to " + resultCls.getTypeName()));
+        ResultConstructor constructor = getResultConstructor(decoders, resultCls)
+                .orElseThrow(() -> new EthereumApiException("could not find decoder for (" + printOutputs() + ") to " + resultCls.getTypeName()));
+        Object[] decodeResult = new Object[constructor.size()];
+        for (int i = 0; i < decodeResult.length; i++) {
+            decodeResult[i] = constructor.getDecoder(i).decode(i, data, constructor.getType(i));
+        }
+        return constructor.newInstance(decodeResult);
+    }
+
+    /**
+     * The decoder of a single output is resolved once per result class and kept with the decoders it was chosen from
+     */
+    private Optional<SolidityTypeDecoder> getResultDecoder(List<SolidityTypeDecoder> decoders, Class<?> resultCls) {
+        ResultDecoder resultDecoder = resultDecoders.get(resultCls);
+        if (resultDecoder == null || resultDecoder.decoders != decoders) {
+            resultDecoder = new ResultDecoder(decoders, decoders.stream().filter(dec -> dec.canDecode(resultCls)).findFirst());
+            resultDecoders.put(resultCls, resultDecoder);
+        }
+        return resultDecoder.decoder;
+    }
+
+    /**
+     * The constructor used to build a result or event object is resolved once per result class and kept with the decoders it was resolved for
+     */
+    private Optional<ResultConstructor> getResultConstructor(List<List<SolidityTypeDecoder>> decoders, Class<?> resultCls) {
+        ResultConstructor constructor = resultConstructors.get(resultCls);
+        if (constructor != null && constructor.isFor(decoders)) {
+            return Optional.of(constructor);
+        }
+        Optional<ResultConstructor> result = findConstructor(decoders, resultCls)
+                .map(found -> new ResultConstructor(decoders, resultCls, found));
+        result.ifPresent(found -> resultConstructors.put(resultCls, found));
+        return result;
     }
 
     private String printOutputs() {
         return outputs.stream().map(AbiParam::getType).reduce((a, b) -> a + ", " + b).orElse("");
     }
 
+    /**
+     * @return the function selector, computed once
+     */
     public EthData signature() {
-        //Constructor has no signature has it is an anonyous function
-        if ("constructor".equals(type)) {
-            return EthData.empty();
+        EthData result = signature;
+        if (result == null) {
+            //Constructor has no signature has it is an anonyous function
+            if ("constructor".equals(type)) {
+                result = EthData.empty();
+            } else {
+                result = EthData.of(Arrays.copyOfRange(signatureLong().data, 0, 4));
+            }
+            signature = result;
         }
-
-        String params = getInputs().stream().map(AbiParam::getType).collect(Collectors.joining(","));
-        return EthData.of(Arrays.copyOfRange(sha3((getName() + "(" + params + ")").getBytes()), 0, 4));
+        return result;
     }
 
+    /**
+     * @return the keccak hash of the canonical signature, used as the first topic of events. It is computed once
+     */
     public EthData signatureLong() {
-        String params = getInputs().stream().map(AbiParam::getType).collect(Collectors.joining(","));
-        return EthData.of(sha3((getName() + "(" + params + ")").getBytes()));
+        EthData result = signatureLong;
+        if (result == null) {
+            String params = Optional.ofNullable(getInputs()).orElseGet(ArrayList::new).stream().map(AbiParam::getType).collect(Collectors.joining(","));
+            result = EthData.of(sha3((getName() + "(" + params + ")").getBytes()));
+            signatureLong = result;
+        }
+        return result;
     }
 
     public <U> Optional<Constructor<U>> findConstructor(List<List<SolidityTypeDecoder>> decoders, Class<U> resultCls) {
@@ -190,17 +231,13 @@ public class AbiEntry {
         }).findFirst().map(constructor -> (Constructor<U>) constructor);
     }
 
-    private Object[] decodeInternal(EthData data, List<List<SolidityTypeDecoder>> decoders, Class[] resultClasses, Type[] resultTypes) {
-        Object[] decodeResult = new Object[decoders.size()];
-        for (int i = 0; i < decoders.size(); i++) {
-            final Type resultType = resultTypes[i];
-            final Class<?> resultCls = resultClasses[i];
-            SolidityTypeDecoder decoder = decoders.get(i).stream()
-                    .filter(encoder -> encoder.canDecode(resultCls))
-                    .findFirst().orElseThrow(() -> new EthereumApiException("could not find decoder for " + resultType.getTypeName() + " serious bug detected!"));
-            decodeResult[i] = decoder.decode(i, data, resultType);
-        }
+    private static final class ResultDecoder {
+        private final List<SolidityTypeDecoder> decoders;
+        private final Optional<SolidityTypeDecoder> decoder;
 
-        return decodeResult;
+        private ResultDecoder(List<SolidityTypeDecoder> decoders, Optional<SolidityTypeDecoder> decoder) {
+            this.decoders = decoders;
+            this.decoder = decoder;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package org.adridadou.ethereum.propeller.solidity.abi;
 
+import org.adridadou.ethereum.propeller.solidity.SolidityTypeDescriptor;
 
 /**
  * Created by davidroon on 28.03.17.
@@ -9,6 +10,7 @@ public class AbiParam {
     private final Boolean indexed;
     private final String name;
     private final String type;
+    private volatile SolidityTypeDescriptor typeDescriptor;
 
     public AbiParam() {
         this(null, null, null);
@@ -32,12 +34,24 @@ public class AbiParam {
         return type;
     }
 
+    /**
+     * @return the parsed type, shared by all the parameters of the same type
+     */
+    public SolidityTypeDescriptor getTypeDescriptor() {
+        SolidityTypeDescriptor result = typeDescriptor;
+        if (result == null) {
+            result = SolidityTypeDescriptor.of(type);
+            typeDescriptor = result;
+        }
+        return result;
+    }
+
     public boolean isArray() {
-        return type.contains("[");
+        return getTypeDescriptor().isArray();
     }
 
     public boolean isDynamic() {
-        return type.contains("[]") || type.equals("string") || type.equals("bytes");
+        return getTypeDescriptor().isDynamic();
     }
 
     @Override
@@ -49,12 +63,10 @@ public class AbiParam {
                 '}';
     }
 
+    /**
+     * @return the size of the outermost array, null if it is dynamic and 0 if the parameter is not an array
+     */
     public Integer getArraySize() {
-        if (!isArray()) {
-            return 0;
-        }
-        int startIndex = type.indexOf("[");
-        int endIndex = type.indexOf("]");
-        return Integer.parseInt(type.substring(startIndex + 1, endIndex));
+        return getTypeDescriptor().getArraySize();
     }
 }
@@ -0,0 +1,102 @@
+package org.adridadou.ethereum.propeller.solidity.abi;
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Constructor chosen to build a result or event object, with the decoder of each argument already resolved.
+ * The constructor is called through a method handle taking the decoded arguments as an array. The handles are kept per
+ * result class in a ClassValue, so that each constructor is only looked up once whatever the number of ABI entries returning it.
+ * This code is released under Apache 2 license
+ */
+final class ResultConstructor {
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final ClassValue<Map<Constructor<?>, Optional<MethodHandle>>> FACTORIES = new ClassValue<Map<Constructor<?>, Optional<MethodHandle>>>() {
+        @Override
+        protected Map<Constructor<?>, Optional<MethodHandle>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final List<List<SolidityTypeDecoder>> decoders;
+    private final Class<?> resultCls;
+    private final SolidityTypeDecoder[] argDecoders;
+    private final Type[] argTypes;
+    private final Constructor<?> constructor;
+    private final MethodHandle factory;
+
+    ResultConstructor(List<List<SolidityTypeDecoder>> decoders, Class<?> resultCls, Constructor<?> constructor) {
+        this.decoders = decoders;
+        this.resultCls = resultCls;
+        this.constructor = constructor;
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        this.argTypes = constructor.getGenericParameterTypes();
+        this.argDecoders = new SolidityTypeDecoder[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            final Class<?> parameterType = parameterTypes[i];
+            final Type argType = argTypes[i];
+            argDecoders[i] = decoders.get(i).stream()
+                    .filter(decoder -> decoder.canDecode(parameterType))
+                    .findFirst().orElseThrow(() -> new EthereumApiException("could not find decoder for " + argType.getTypeName() + " serious bug detected!"));
+        }
+        this.factory = FACTORIES.get(resultCls).computeIfAbsent(constructor, ResultConstructor::createFactory).orElse(null);
+    }
+
+    private static Optional<MethodHandle> createFactory(Constructor<?> constructor) {
+        try {
+            return Optional.of(MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(FACTORY_TYPE));
+        } catch (IllegalAccessException e) {
+            //the reflective call reports the access error when the object is created
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return true if it has been resolved for these decoders
+     */
+    boolean isFor(List<List<SolidityTypeDecoder>> decoders) {
+        return this.decoders == decoders;
+    }
+
+    int size() {
+        return argDecoders.length;
+    }
+
+    SolidityTypeDecoder getDecoder(int index) {
+        return argDecoders[index];
+    }
+
+    Type getType(int index) {
+        return argTypes[index];
+    }
+
+    Object newInstance(Object[] args) {
+        if (factory == null) {
+            try {
+                return constructor.newInstance(args);
+            } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
+                throw new EthereumApiException("error while creating a new instance of " + resultCls.getTypeName(), e);
+            }
+        }
+        try {
+            return factory.invokeExact(args);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new EthereumApiException("error while creating a new instance of " + resultCls.getTypeName(), e);
+        }
+    }
+}
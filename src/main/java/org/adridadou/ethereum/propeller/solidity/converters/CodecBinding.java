@@ -0,0 +1,50 @@
+package org.adridadou.ethereum.propeller.solidity.converters;
+
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.SolidityTypeEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * The codecs available for one solidity type, with the codec chosen for each Java type resolved once and then cached
+ * This code is released under Apache 2 license
+ */
+public final class CodecBinding<C> {
+    private final List<C> codecs;
+    private final BiPredicate<C, Class<?>> matcher;
+    private final Map<Class<?>, Optional<C>> bindings = new ConcurrentHashMap<>();
+
+    private CodecBinding(List<C> codecs, BiPredicate<C, Class<?>> matcher) {
+        this.codecs = Collections.unmodifiableList(new ArrayList<>(codecs));
+        this.matcher = matcher;
+    }
+
+    public static CodecBinding<SolidityTypeEncoder> encoders(List<SolidityTypeEncoder> encoders) {
+        return new CodecBinding<>(encoders, SolidityTypeEncoder::canConvert);
+    }
+
+    public static CodecBinding<SolidityTypeDecoder> decoders(List<SolidityTypeDecoder> decoders) {
+        return new CodecBinding<>(decoders, SolidityTypeDecoder::canDecode);
+    }
+
+    /**
+     * @return the first codec able to handle the type
+     */
+    public Optional<C> find(Class<?> type) {
+        Optional<C> codec = bindings.get(type);
+        if (codec == null) {
+            codec = bindings.computeIfAbsent(type, key -> codecs.stream().filter(c -> matcher.test(c, key)).findFirst());
+        }
+        return codec;
+    }
+
+    public List<C> getCodecs() {
+        return codecs;
+    }
+}
@@ -13,7 +13,7 @@ public class AddressDecoder implements SolidityTypeDecoder {
 
     @Override
     public EthAddress decode(Integer index, EthData data, Type resultType) {
-        return EthAddress.of(data.word(index).data);
+        return EthAddress.of(WordReader.readTrimmedWord(data, index));
     }
 
     @Override
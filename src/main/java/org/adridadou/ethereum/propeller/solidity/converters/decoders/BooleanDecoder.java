@@ -3,7 +3,6 @@ package org.adridadou.ethereum.propeller.solidity.converters.decoders;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.lang.reflect.Type;
-import java.math.BigInteger;
 
 /**
  * Created by davidroon on 03.04.17.
@@ -13,8 +12,7 @@ public class BooleanDecoder implements SolidityTypeDecoder {
 
     @Override
     public Boolean decode(Integer index, EthData data, Type resultType) {
-        EthData word = data.word(index);
-        return !(word.isEmpty() || (new BigInteger(1, word.data)).equals(BigInteger.ZERO));
+        return !WordReader.isZero(data, index);
     }
 
     @Override
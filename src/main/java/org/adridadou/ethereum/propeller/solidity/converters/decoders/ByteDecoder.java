@@ -0,0 +1,22 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders;
+
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.lang.reflect.Type;
+
+/**
+ * Decodes a word directly into a byte, without going through BigInteger
+ * This code is released under Apache 2 license
+ */
+public class ByteDecoder implements SolidityTypeDecoder {
+
+    @Override
+    public Byte decode(Integer index, EthData data, Type resultType) {
+        return (byte) WordReader.readLong(data, index, Byte.SIZE);
+    }
+
+    @Override
+    public boolean canDecode(Class<?> resultCls) {
+        return Byte.class.equals(resultCls) || byte.class.equals(resultCls);
+    }
+}
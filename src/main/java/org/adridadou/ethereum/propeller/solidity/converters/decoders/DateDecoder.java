@@ -11,11 +11,11 @@ import java.util.Date;
  */
 public class DateDecoder implements SolidityTypeDecoder {
 
-    private final NumberDecoder numberDecoder = new NumberDecoder();
+    private final LongDecoder longDecoder = new LongDecoder();
 
     @Override
     public Date decode(Integer index, EthData data, Type resultType) {
-        return new Date(numberDecoder.decode(index, data, Long.class).longValue());
+        return new Date(longDecoder.decode(index, data, Long.class));
     }
 
     @Override
@@ -10,11 +10,11 @@ import java.lang.reflect.Type;
  */
 public class EnumDecoder implements SolidityTypeDecoder {
 
-    private final NumberDecoder numberDecoder = new NumberDecoder();
+    private final IntegerDecoder integerDecoder = new IntegerDecoder();
 
     @Override
     public Object decode(Integer index, EthData data, Type resultType) {
-        Integer ordinal = numberDecoder.decode(index, data, Integer.class).intValue();
+        Integer ordinal = integerDecoder.decode(index, data, Integer.class);
         return ((Class<? extends Enum>) resultType).getEnumConstants()[ordinal];
     }
 
@@ -11,7 +11,7 @@ import java.lang.reflect.Type;
 public class EthDataDecoder implements SolidityTypeDecoder {
     @Override
     public Object decode(Integer index, EthData data, Type resultType) {
-        return data.word(index);
+        return EthData.of(WordReader.readWord(data, index));
     }
 
     @Override
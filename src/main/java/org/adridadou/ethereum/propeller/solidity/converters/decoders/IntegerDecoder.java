@@ -0,0 +1,22 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders;
+
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.lang.reflect.Type;
+
+/**
+ * Decodes a word directly into a int, without going through BigInteger
+ * This code is released under Apache 2 license
+ */
+public class IntegerDecoder implements SolidityTypeDecoder {
+
+    @Override
+    public Integer decode(Integer index, EthData data, Type resultType) {
+        return (int) WordReader.readLong(data, index, Integer.SIZE);
+    }
+
+    @Override
+    public boolean canDecode(Class<?> resultCls) {
+        return Integer.class.equals(resultCls) || int.class.equals(resultCls);
+    }
+}
@@ -0,0 +1,22 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders;
+
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.lang.reflect.Type;
+
+/**
+ * Decodes a word directly into a long, without going through BigInteger
+ * This code is released under Apache 2 license
+ */
+public class LongDecoder implements SolidityTypeDecoder {
+
+    @Override
+    public Long decode(Integer index, EthData data, Type resultType) {
+        return WordReader.readLong(data, index, Long.SIZE);
+    }
+
+    @Override
+    public boolean canDecode(Class<?> resultCls) {
+        return Long.class.equals(resultCls) || long.class.equals(resultCls);
+    }
+}
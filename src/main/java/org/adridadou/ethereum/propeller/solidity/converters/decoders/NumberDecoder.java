@@ -1,14 +1,11 @@
 package org.adridadou.ethereum.propeller.solidity.converters.decoders;
 
-import org.adridadou.ethereum.propeller.exception.EthereumApiException;
 import org.adridadou.ethereum.propeller.util.CastUtil;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.lang.reflect.Type;
 import java.math.BigInteger;
 
-import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
-
 /**
  * Created by davidroon on 03.04.17.
  * This code is released under Apache 2 license
@@ -17,11 +14,7 @@ public class NumberDecoder implements SolidityTypeDecoder {
 
     @Override
     public Number decode(Integer index, EthData data, Type resultType) {
-        EthData word = data.word(index);
-        if (word.length() > WORD_SIZE) {
-            throw new EthereumApiException("a word should be of size 32:" + word.length());
-        }
-        BigInteger number = word.isEmpty() ? BigInteger.ZERO : new BigInteger(word.data);
+        BigInteger number = WordReader.readBigInteger(data, index);
 
         return CastUtil.<Number>matcher()
                 .typeNameEquals("long", number::longValueExact)
@@ -0,0 +1,22 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders;
+
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.lang.reflect.Type;
+
+/**
+ * Decodes a word directly into a short, without going through BigInteger
+ * This code is released under Apache 2 license
+ */
+public class ShortDecoder implements SolidityTypeDecoder {
+
+    @Override
+    public Short decode(Integer index, EthData data, Type resultType) {
+        return (short) WordReader.readLong(data, index, Short.SIZE);
+    }
+
+    @Override
+    public boolean canDecode(Class<?> resultCls) {
+        return Short.class.equals(resultCls) || short.class.equals(resultCls);
+    }
+}
@@ -1,5 +1,6 @@
 package org.adridadou.ethereum.propeller.solidity.converters.decoders;
 
+import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.lang.reflect.Type;
@@ -12,4 +13,11 @@ public interface SolidityTypeDecoder {
     Object decode(Integer index, EthData data, Type resultType);
 
     boolean canDecode(Class<?> resultCls);
+
+    /**
+     * @return false if the decoder cannot read the values of this solidity type, whatever the Java type they are decoded to
+     */
+    default boolean canDecode(SolidityType solidityType) {
+        return true;
+    }
 }
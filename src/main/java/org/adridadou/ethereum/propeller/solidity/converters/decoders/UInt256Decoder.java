@@ -0,0 +1,35 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders;
+
+import org.adridadou.ethereum.propeller.solidity.SolidityType;
+import org.adridadou.ethereum.propeller.values.EthData;
+import org.adridadou.ethereum.propeller.values.EthValue;
+import org.adridadou.ethereum.propeller.values.UInt256;
+
+import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Decodes a word directly into a UInt256, or an EthValue in wei, without going through BigInteger.
+ * Only unsigned types are decoded, a negative intN value would otherwise be read as a huge unsigned one
+ * This code is released under Apache 2 license
+ */
+public class UInt256Decoder implements SolidityTypeDecoder {
+    private static final Set<SolidityType> SIGNED_TYPES = EnumSet.range(SolidityType.INT, SolidityType.INT256);
+
+    @Override
+    public Object decode(Integer index, EthData data, Type resultType) {
+        UInt256 value = UInt256.fromWord(data, index);
+        return EthValue.class.equals(resultType) ? EthValue.wei(value) : value;
+    }
+
+    @Override
+    public boolean canDecode(Class<?> resultCls) {
+        return UInt256.class.equals(resultCls) || EthValue.class.equals(resultCls);
+    }
+
+    @Override
+    public boolean canDecode(SolidityType solidityType) {
+        return !SIGNED_TYPES.contains(solidityType);
+    }
+}
@@ -0,0 +1,174 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders;
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
+/**
+ * Reads the words of return or event data in place, using offsets into the underlying array instead of copying each word.
+ * Like {@link EthData#word(int)}, bytes past the end of the data are read as 0.
+ * This code is released under Apache 2 license
+ */
+public final class WordReader {
+    private static final int LONGS_PER_WORD = WORD_SIZE / Long.BYTES;
+
+    private WordReader() {
+    }
+
+    /**
+     * @return the long at position {@code part} (0 to 3, big endian) of the word
+     */
+    public static long readLongPart(EthData data, int index, int part) {
+        byte[] bytes = data.data;
+        int offset = index * WORD_SIZE + part * Long.BYTES;
+        long result = 0;
+        if (offset >= 0 && offset + Long.BYTES <= bytes.length) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                result = (result << 8) | (bytes[offset + i] & 0xFF);
+            }
+            return result;
+        }
+        for (int i = 0; i < Long.BYTES; i++) {
+            result = (result << 8) | (readByte(bytes, offset + i) & 0xFF);
+        }
+        return result;
+    }
+
+    /**
+     * @return the word as a two's complement number
+     */
+    public static BigInteger readBigInteger(EthData data, int index) {
+        long low = readLongPart(data, index, LONGS_PER_WORD - 1);
+        long signExtension = low < 0 ? -1L : 0L;
+        boolean fitsInLong = true;
+        for (int part = 0; part < LONGS_PER_WORD - 1 && fitsInLong; part++) {
+            fitsInLong = readLongPart(data, index, part) == signExtension;
+        }
+        if (fitsInLong) {
+            return BigInteger.valueOf(low);
+        }
+        return new BigInteger(readWord(data, index));
+    }
+
+    /**
+     * Reads a word that has to fit in a signed integer of the given number of bits (at most 64).
+     * The range is checked by comparing the bits above the value with its sign instead of going through BigInteger
+     */
+    public static long readLong(EthData data, int index, int bits) {
+        long value = readLongPart(data, index, LONGS_PER_WORD - 1);
+        long signExtension = value >> (Long.SIZE - 1);
+        for (int part = 0; part < LONGS_PER_WORD - 1; part++) {
+            if (readLongPart(data, index, part) != signExtension) {
+                throw new EthereumApiException("the value at word " + index + " does not fit in " + bits + " bits");
+            }
+        }
+        if ((value >> (bits - 1)) != signExtension) {
+            throw new EthereumApiException("the value at word " + index + " does not fit in " + bits + " bits");
+        }
+        return value;
+    }
+
+    /**
+     * @return the word as an offset or a length, which has to fit in a positive int
+     */
+    public static int readSize(EthData data, int index) {
+        long value = readLongPart(data, index, LONGS_PER_WORD - 1);
+        for (int part = 0; part < LONGS_PER_WORD - 1; part++) {
+            if (readLongPart(data, index, part) != 0) {
+                throw new EthereumApiException("offset or length too big at word " + index);
+            }
+        }
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new EthereumApiException("offset or length too big at word " + index + ":" + value);
+        }
+        return (int) value;
+    }
+
+    public static boolean isZero(EthData data, int index) {
+        for (int part = 0; part < LONGS_PER_WORD; part++) {
+            if (readLongPart(data, index, part) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a copy of the word
+     */
+    public static byte[] readWord(EthData data, int index) {
+        return readBytes(data, index * WORD_SIZE, WORD_SIZE);
+    }
+
+    /**
+     * @return a copy of the word without its leading zeros
+     */
+    public static byte[] readTrimmedWord(EthData data, int index) {
+        int start = index * WORD_SIZE;
+        int firstNonZero = start;
+        while (firstNonZero < start + WORD_SIZE && readByte(data.data, firstNonZero) == 0) {
+            firstNonZero++;
+        }
+        return readBytes(data, firstNonZero, start + WORD_SIZE - firstNonZero);
+    }
+
+    /**
+     * @return a copy of the bytes between offset and offset + length, zero padded past the end of the data
+     */
+    public static byte[] readBytes(EthData data, int offset, int length) {
+        byte[] bytes = data.data;
+        if (offset >= 0 && offset + length <= bytes.length) {
+            return Arrays.copyOfRange(bytes, offset, offset + length);
+        }
+        byte[] result = new byte[length];
+        int start = Math.max(offset, 0);
+        int end = Math.min(offset + length, bytes.length);
+        if (start < end) {
+            System.arraycopy(bytes, start, result, start - offset, end - start);
+        }
+        return result;
+    }
+
+    /**
+     * @return the bytes of a dynamic value (bytes or string) whose offset is stored at the word index, cut at the end of the data
+     */
+    public static EthData readDynamicBytes(EthData data, int index) {
+        int lengthIndex = readLengthIndex(data, index);
+        int start = dynamicStart(data, lengthIndex);
+        return EthData.of(Arrays.copyOfRange(data.data, start, dynamicEnd(data, lengthIndex, start)));
+    }
+
+    /**
+     * Decodes the UTF-8 string whose offset is stored at the word index directly from the data
+     */
+    public static String readDynamicString(EthData data, int index) {
+        int lengthIndex = readLengthIndex(data, index);
+        int start = dynamicStart(data, lengthIndex);
+        return new String(data.data, start, dynamicEnd(data, lengthIndex, start) - start, StandardCharsets.UTF_8);
+    }
+
+    private static int readLengthIndex(EthData data, int index) {
+        int offset = readSize(data, index);
+        if (offset % WORD_SIZE != 0) {
+            throw new EthereumApiException("the offset of a dynamic value has to be a multiple of " + WORD_SIZE + " but got " + offset);
+        }
+        return offset / WORD_SIZE;
+    }
+
+    private static int dynamicStart(EthData data, int lengthIndex) {
+        return (int) Math.min((lengthIndex + 1L) * WORD_SIZE, data.length());
+    }
+
+    private static int dynamicEnd(EthData data, int lengthIndex, int start) {
+        return (int) Math.min((long) start + readSize(data, lengthIndex), data.length());
+    }
+
+    private static byte readByte(byte[] bytes, int position) {
+        return position >= 0 && position < bytes.length ? bytes[position] : 0;
+    }
+}
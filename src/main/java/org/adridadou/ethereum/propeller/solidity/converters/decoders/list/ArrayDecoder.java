@@ -1,13 +1,16 @@
 package org.adridadou.ethereum.propeller.solidity.converters.decoders.list;
 
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.WordReader;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.util.List;
 
 /**
  * Created by davidroon on 04.04.17.
+ * long[] and int[] are filled straight from the words, without boxing the elements.
  * This code is released under Apache 2 license
  */
 public class ArrayDecoder extends CollectionDecoder {
@@ -18,7 +21,35 @@ public class ArrayDecoder extends CollectionDecoder {
 
     @Override
     public Object decode(Integer index, EthData data, Type resultType) {
-        return decodeCollection(index, data, ((Class) resultType).getComponentType());
+        Class<?> componentType = ((Class) resultType).getComponentType();
+        if (componentType.isPrimitive()) {
+            return decodePrimitives(index, data, componentType);
+        }
+        return decodeCollection(index, data, componentType);
+    }
+
+    private Object decodePrimitives(Integer index, EthData data, Class<?> componentType) {
+        SolidityTypeDecoder decoder = getDecoder(componentType);
+        Elements elements = elements(index, data);
+        if (long.class.equals(componentType)) {
+            long[] result = new long[elements.count];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = WordReader.readLong(data, elements.first + i, Long.SIZE);
+            }
+            return result;
+        }
+        if (int.class.equals(componentType)) {
+            int[] result = new int[elements.count];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (int) WordReader.readLong(data, elements.first + i, Integer.SIZE);
+            }
+            return result;
+        }
+        Object result = Array.newInstance(componentType, elements.count);
+        for (int i = 0; i < elements.count; i++) {
+            Array.set(result, i, decoder.decode(elements.first + i, data, componentType));
+        }
+        return result;
     }
 
     @Override
@@ -1,41 +1,119 @@
 package org.adridadou.ethereum.propeller.solidity.converters.decoders.list;
 
 import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.solidity.converters.CodecBinding;
 import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.WordReader;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
 
 /**
  * Created by davidroon on 04.04.17.
+ * A fixed size array is read from the word index on. For a dynamic array (size null), the word index holds the offset
+ * of the length prefix and the elements follow it.
  * This code is released under Apache 2 license
  */
 public abstract class CollectionDecoder implements SolidityTypeDecoder {
-    private final List<SolidityTypeDecoder> decoders;
-    private final int size;
+    private final CodecBinding<SolidityTypeDecoder> decoders;
+    private final Integer size;
 
     CollectionDecoder(List<SolidityTypeDecoder> decoders, Integer size) {
-        this.decoders = decoders;
+        this.decoders = CodecBinding.decoders(decoders);
         this.size = size;
     }
 
     Object[] decodeCollection(Integer index, EthData data, Class<?> subResultType) {
-        SolidityTypeDecoder decoder = decoders.stream()
-                .filter(dec -> dec.canDecode(subResultType)).findFirst()
-                .orElseThrow(() -> new EthereumApiException("no decoder found. serious bug detected!"));
+        SolidityTypeDecoder decoder = getDecoder(subResultType);
+        Elements elements = elements(index, data);
+        Object[] result = (Object[]) Array.newInstance(subResultType, elements.count);
+        for (int i = 0; i < elements.count; ++i) {
+            result[i] = decoder.decode(elements.first + i, data, subResultType);
+        }
+        return result;
+    }
 
+    /**
+     * @return an iterator decoding each element from the data when it is reached
+     */
+    ElementIterator iterateCollection(Integer index, EthData data, Class<?> subResultType) {
+        return new ElementIterator(getDecoder(subResultType), data, elements(index, data), subResultType);
+    }
 
-        Object[] result = (Object[]) Array.newInstance(subResultType, this.size);
-        for (int i = 0; i < this.size; ++i) {
-            result[i] = decoder.decode(i + index, data, subResultType);
+    SolidityTypeDecoder getDecoder(Class<?> subResultType) {
+        return decoders.find(subResultType)
+                .orElseThrow(() -> new EthereumApiException("no decoder found. serious bug detected!"));
+    }
+
+    Elements elements(Integer index, EthData data) {
+        if (size != null) {
+            return new Elements(index, size);
         }
-        return result;
+        int offset = WordReader.readSize(data, index);
+        if (offset % WORD_SIZE != 0) {
+            throw new EthereumApiException("the offset of a dynamic array has to be a multiple of " + WORD_SIZE + " but got " + offset);
+        }
+        int lengthIndex = offset / WORD_SIZE;
+        int count = WordReader.readSize(data, lengthIndex);
+        if ((lengthIndex + 1L + count) * WORD_SIZE > data.length()) {
+            throw new EthereumApiException("a dynamic array of " + count + " elements does not fit in " + data.length() + " bytes of data");
+        }
+        return new Elements(lengthIndex + 1, count);
     }
 
     Class<?> getGenericType(Type genericType) {
         return (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
     }
+
+    static final class ElementIterator implements Iterator<Object> {
+        private final SolidityTypeDecoder decoder;
+        private final EthData data;
+        private final Elements elements;
+        private final Class<?> subResultType;
+        private int current = 0;
+
+        private ElementIterator(SolidityTypeDecoder decoder, EthData data, Elements elements, Class<?> subResultType) {
+            this.decoder = decoder;
+            this.data = data;
+            this.elements = elements;
+            this.subResultType = subResultType;
+        }
+
+        int size() {
+            return elements.count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < elements.count;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return decoder.decode(elements.first + current++, data, subResultType);
+        }
+    }
+
+    /**
+     * The word index of the first element and the number of elements
+     */
+    static final class Elements {
+        final int first;
+        final int count;
+
+        private Elements(int first, int count) {
+            this.first = first;
+            this.count = count;
+        }
+    }
 }
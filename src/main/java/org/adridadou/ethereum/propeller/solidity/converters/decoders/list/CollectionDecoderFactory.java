@@ -0,0 +1,18 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders.list;
+
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+
+import java.util.List;
+
+/**
+ * Creates a list decoder for an array or bytes parameter. The constructors of the list decoders can be used directly, e.g. ListDecoder::new
+ * This code is released under Apache 2 license
+ */
+@FunctionalInterface
+public interface CollectionDecoderFactory {
+    /**
+     * @param decoders The decoders of the element type
+     * @param size     The size of the array
+     */
+    CollectionDecoder create(List<SolidityTypeDecoder> decoders, Integer size);
+}
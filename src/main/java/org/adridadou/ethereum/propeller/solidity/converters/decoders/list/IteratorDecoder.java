@@ -0,0 +1,30 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders.list;
+
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Decodes an array into an iterator reading each element from the return data when it is reached,
+ * so that a large array is never held as decoded objects
+ * This code is released under Apache 2 license
+ */
+public class IteratorDecoder extends CollectionDecoder {
+
+    public IteratorDecoder(List<SolidityTypeDecoder> decoders, Integer size) {
+        super(decoders, size);
+    }
+
+    @Override
+    public Object decode(Integer index, EthData data, Type resultType) {
+        return iterateCollection(index, data, getGenericType(resultType));
+    }
+
+    @Override
+    public boolean canDecode(Class<?> resultCls) {
+        return resultCls.equals(Iterator.class);
+    }
+}
@@ -5,7 +5,6 @@ import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -20,7 +19,12 @@ public class ListDecoder extends CollectionDecoder {
 
     @Override
     public Object decode(Integer index, EthData data, Type resultType) {
-        return new ArrayList<>(Arrays.asList(decodeCollection(index, data, getGenericType(resultType))));
+        ElementIterator elements = iterateCollection(index, data, getGenericType(resultType));
+        List<Object> result = new ArrayList<>(elements.size());
+        while (elements.hasNext()) {
+            result.add(elements.next());
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,35 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders.list;
+
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder;
+import org.adridadou.ethereum.propeller.values.EthData;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decodes an array into a sequential stream reading each element from the return data when it is consumed
+ * This code is released under Apache 2 license
+ */
+public class StreamDecoder extends CollectionDecoder {
+
+    public StreamDecoder(List<SolidityTypeDecoder> decoders, Integer size) {
+        super(decoders, size);
+    }
+
+    @Override
+    public Object decode(Integer index, EthData data, Type resultType) {
+        ElementIterator elements = iterateCollection(index, data, getGenericType(resultType));
+        Spliterator<Object> spliterator = Spliterators.spliterator(elements, elements.size(),
+                Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public boolean canDecode(Class<?> resultCls) {
+        return resultCls.equals(Stream.class);
+    }
+}
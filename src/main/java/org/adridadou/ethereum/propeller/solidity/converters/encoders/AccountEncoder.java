@@ -4,6 +4,8 @@ import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthAccount;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.nio.ByteBuffer;
+
 /**
  * Created by davidroon on 05.04.17.
  * This code is released under Apache 2 license
@@ -20,4 +22,14 @@ public class AccountEncoder implements SolidityTypeEncoder {
     public EthData encode(Object arg, SolidityType solidityType) {
         return addressEncoder.encode(((EthAccount) arg).getAddress(), SolidityType.ADDRESS);
     }
+
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return addressEncoder.encodedSize(((EthAccount) arg).getAddress(), SolidityType.ADDRESS);
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        addressEncoder.encode(((EthAccount) arg).getAddress(), SolidityType.ADDRESS, buffer);
+    }
 }
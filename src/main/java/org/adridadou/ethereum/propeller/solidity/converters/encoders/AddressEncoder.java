@@ -5,6 +5,9 @@ import org.adridadou.ethereum.propeller.values.EthAddress;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
 
 /**
  * Created by davidroon on 05.04.17.
@@ -22,4 +25,18 @@ public class AddressEncoder implements SolidityTypeEncoder {
     public EthData encode(Object arg, SolidityType solidityType) {
         return numberEncoder.encode(new BigInteger(1, ((EthAddress) arg).address), SolidityType.INT);
     }
+
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return WORD_SIZE;
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        byte[] address = ((EthAddress) arg).address;
+        for (int i = address.length; i < WORD_SIZE; i++) {
+            buffer.put((byte) 0);
+        }
+        buffer.put(address);
+    }
 }
@@ -5,6 +5,9 @@ import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
 
 /**
  * Created by davidroon on 03.04.17.
@@ -24,4 +27,18 @@ public class BooleanEncoder implements SolidityTypeEncoder {
         }
         throw new EthereumApiException("cannot encode bool value:" + arg);
     }
+
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return WORD_SIZE;
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        if (arg instanceof Boolean) {
+            NumberEncoder.writeWord((Boolean) arg ? 1L : 0L, buffer);
+            return;
+        }
+        throw new EthereumApiException("cannot encode bool value:" + arg);
+    }
 }
@@ -3,8 +3,11 @@ package org.adridadou.ethereum.propeller.solidity.converters.encoders;
 import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.nio.ByteBuffer;
 import java.util.Date;
 
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
 /**
  * Created by davidroon on 05.04.17.
  * This code is released under Apache 2 license
@@ -22,4 +25,14 @@ public class DateEncoder implements SolidityTypeEncoder {
         Date date = (Date) arg;
         return numberEncoder.encode(date.getTime(), solidityType);
     }
+
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return WORD_SIZE;
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        numberEncoder.encode(((Date) arg).getTime(), solidityType, buffer);
+    }
 }
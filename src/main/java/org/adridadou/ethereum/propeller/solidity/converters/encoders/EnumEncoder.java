@@ -3,6 +3,10 @@ package org.adridadou.ethereum.propeller.solidity.converters.encoders;
 import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.nio.ByteBuffer;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
 /**
  * Created by davidroon on 08.04.17.
  * This code is released under Apache 2 license
@@ -20,4 +24,14 @@ public class EnumEncoder implements SolidityTypeEncoder {
     public EthData encode(Object arg, SolidityType solidityType) {
         return numberEncoder.encode(((Enum) arg).ordinal(), SolidityType.UINT);
     }
+
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return WORD_SIZE;
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        NumberEncoder.writeWord(((Enum) arg).ordinal(), buffer);
+    }
 }
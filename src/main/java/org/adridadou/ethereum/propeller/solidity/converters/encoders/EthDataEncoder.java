@@ -4,6 +4,10 @@ import org.adridadou.ethereum.propeller.exception.EthereumApiException;
 import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.nio.ByteBuffer;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
 /**
  * Created by davidroon on 23.04.17.
  * This code is released under Apache 2 license
@@ -28,15 +32,64 @@ public class EthDataEncoder implements SolidityTypeEncoder {
         }
     }
 
-    private EthData encodeToBytes32(EthData arg) {
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        switch (solidityType) {
+            case BYTES:
+                return WORD_SIZE + paddedLength(((EthData) arg).length());
+            case BYTES32:
+                checkBytes32Size((EthData) arg);
+                return WORD_SIZE;
+            default:
+                throw new EthereumApiException("EthData can be encoded to Bytes and Bytes32 only");
+        }
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        EthData data = (EthData) arg;
+        switch (solidityType) {
+            case BYTES:
+                NumberEncoder.writeWord(data.length(), buffer);
+                buffer.put(data.data);
+                for (int i = data.length(); i < paddedLength(data.length()); i++) {
+                    buffer.put((byte) 0);
+                }
+                return;
+            case BYTES32:
+                checkBytes32Size(data);
+                buffer.put(data.data);
+                for (int i = data.length(); i < WORD_SIZE; i++) {
+                    buffer.put((byte) 0);
+                }
+                return;
+            default:
+                throw new EthereumApiException("EthData can be encoded to Bytes and Bytes32 only");
+        }
+    }
+
+    /**
+     * The content of bytes is right padded to a whole number of words so that the values after it stay aligned
+     */
+    private static int paddedLength(int length) {
+        return (length + WORD_SIZE - 1) / WORD_SIZE * WORD_SIZE;
+    }
+
+    private void checkBytes32Size(EthData arg) {
         if (arg.length() > EthData.WORD_SIZE) {
             throw new EthereumApiException("bytes32 is a word only, EthData data too big " + arg.length());
         }
+    }
+
+    private EthData encodeToBytes32(EthData arg) {
+        checkBytes32Size(arg);
         return arg.word(0);
     }
 
     private EthData encodeToBytes(EthData arg) {
         EthData lengthData = numberEncoder.encode(arg.length(), SolidityType.UINT);
-        return lengthData.merge(arg);
+        byte[] padded = new byte[paddedLength(arg.length())];
+        System.arraycopy(arg.data, 0, padded, 0, arg.length());
+        return lengthData.merge(EthData.of(padded));
     }
 }
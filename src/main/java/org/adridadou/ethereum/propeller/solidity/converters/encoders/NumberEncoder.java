@@ -5,32 +5,89 @@ import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
 
 /**
  * Created by davidroon on 03.04.17.
  * This code is released under Apache 2 license
  */
 public class NumberEncoder implements SolidityTypeEncoder {
+    private static final Set<Class<?>> PRIMITIVE_NUMBERS = new HashSet<>(Arrays.asList(long.class, int.class, short.class, byte.class));
 
     @Override
     public boolean canConvert(Class<?> type) {
-        return type.getTypeName().equals("int") || type.getTypeName().equals("long") || Number.class.isAssignableFrom(type);
+        return type.isPrimitive() && PRIMITIVE_NUMBERS.contains(type) || Number.class.isAssignableFrom(type);
     }
 
     @Override
     public EthData encode(Object arg, SolidityType solidityType) {
-        if (solidityType.name().startsWith("U")) {
-            if (arg instanceof BigInteger) {
-                if (((BigInteger) arg).signum() == -1) {
-                    throw new EthereumApiException("unsigned type cannot encode negative values");
-                }
-            } else if (((Number) arg).longValue() < 0) {
-                throw new EthereumApiException("unsigned type cannot encode negative values");
-            }
-        }
+        checkRange(arg, solidityType);
         if (arg instanceof BigInteger) {
             return EthData.of((BigInteger) arg);
         }
         return EthData.of(((Number) arg).longValue());
     }
+
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return WORD_SIZE;
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        checkRange(arg, solidityType);
+        if (arg instanceof BigInteger) {
+            writeWord((BigInteger) arg, buffer);
+        } else {
+            writeWord(((Number) arg).longValue(), buffer);
+        }
+    }
+
+    /**
+     * Writes a number as a 32 bytes two's complement word, the same way as {@link EthData#of(BigInteger)}
+     *
+     * @throws EthereumApiException if the value is not between -2^255 and 2^256 - 1
+     */
+    public static void writeWord(BigInteger value, ByteBuffer buffer) {
+        if (value.bitLength() > (value.signum() < 0 ? 255 : 256)) {
+            throw new EthereumApiException("the value " + value + " does not fit in a word");
+        }
+        byte[] biBytes = value.toByteArray();
+        int start = biBytes.length == WORD_SIZE + 1 ? 1 : 0;
+        int length = Math.min(biBytes.length, WORD_SIZE);
+        byte fill = (byte) (value.signum() < 0 ? -1 : 0);
+        for (int i = length; i < WORD_SIZE; i++) {
+            buffer.put(fill);
+        }
+        buffer.put(biBytes, start, length);
+    }
+
+    public static void writeWord(long value, ByteBuffer buffer) {
+        byte fill = (byte) (value < 0 ? -1 : 0);
+        for (int i = Long.BYTES; i < WORD_SIZE; i++) {
+            buffer.put(fill);
+        }
+        buffer.putLong(value);
+    }
+
+    private void checkRange(Object arg, SolidityType solidityType) {
+        boolean unsigned = solidityType.name().startsWith("U");
+        if (arg instanceof BigInteger) {
+            BigInteger value = (BigInteger) arg;
+            if (unsigned && value.signum() == -1) {
+                throw new EthereumApiException("unsigned type cannot encode negative values");
+            }
+            if (value.bitLength() > (unsigned ? 256 : 255)) {
+                throw new EthereumApiException("the value " + value + " is out of range for " + solidityType.name().toLowerCase(Locale.ENGLISH));
+            }
+        } else if (unsigned && ((Number) arg).longValue() < 0) {
+            throw new EthereumApiException("unsigned type cannot encode negative values");
+        }
+    }
 }
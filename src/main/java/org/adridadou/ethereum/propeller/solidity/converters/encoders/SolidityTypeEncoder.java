@@ -4,6 +4,8 @@ package org.adridadou.ethereum.propeller.solidity.converters.encoders;
 import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.nio.ByteBuffer;
+
 /**
  * Created by davidroon on 02.04.17.
  * This code is released under Apache 2 license
@@ -13,4 +15,18 @@ public interface SolidityTypeEncoder {
 
     EthData encode(Object arg, SolidityType solidityType);
 
+    /**
+     * @return the number of bytes written by {@link #encode(Object, SolidityType, ByteBuffer)}
+     */
+    default int encodedSize(Object arg, SolidityType solidityType) {
+        return encode(arg, solidityType).length();
+    }
+
+    /**
+     * Writes the encoded value at the current position of the buffer.
+     * Encoders should override it together with {@link #encodedSize(Object, SolidityType)} to avoid intermediate copies
+     */
+    default void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        buffer.put(encode(arg, solidityType).data);
+    }
 }
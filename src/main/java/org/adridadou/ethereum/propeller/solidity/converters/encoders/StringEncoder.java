@@ -3,6 +3,7 @@ package org.adridadou.ethereum.propeller.solidity.converters.encoders;
 import org.adridadou.ethereum.propeller.solidity.SolidityType;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
@@ -20,9 +21,55 @@ public class StringEncoder implements SolidityTypeEncoder {
     public EthData encode(Object value, SolidityType solidityType) {
         String str = (String) value;
         byte[] bytesValue = str.getBytes(StandardCharsets.UTF_8);
-        byte[] resizedBytesValue = new byte[(((bytesValue.length - 1) / WORD_SIZE) + 1) * WORD_SIZE];
+        byte[] resizedBytesValue = new byte[paddedLength(bytesValue.length)];
         System.arraycopy(bytesValue, 0, resizedBytesValue, 0, bytesValue.length);
 
         return EthData.of(bytesValue.length).merge(EthData.of(resizedBytesValue));
     }
+
+    @Override
+    public int encodedSize(Object value, SolidityType solidityType) {
+        return WORD_SIZE + paddedLength(utf8Length((String) value));
+    }
+
+    @Override
+    public void encode(Object value, SolidityType solidityType, ByteBuffer buffer) {
+        byte[] bytesValue = ((String) value).getBytes(StandardCharsets.UTF_8);
+        NumberEncoder.writeWord(bytesValue.length, buffer);
+        buffer.put(bytesValue);
+        for (int i = bytesValue.length; i < paddedLength(bytesValue.length); i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * The content is right padded to a whole number of words, an empty string is only encoded as its length word
+     */
+    private static int paddedLength(int length) {
+        return (length + WORD_SIZE - 1) / WORD_SIZE * WORD_SIZE;
+    }
+
+    /**
+     * Length of the string once encoded by {@link String#getBytes(java.nio.charset.Charset)}, without encoding it
+     */
+    private static int utf8Length(String str) {
+        int length = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                //unpaired surrogates are replaced by '?'
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
 }
@@ -0,0 +1,55 @@
+package org.adridadou.ethereum.propeller.solidity.converters.encoders;
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.solidity.SolidityType;
+import org.adridadou.ethereum.propeller.values.EthData;
+import org.adridadou.ethereum.propeller.values.EthValue;
+import org.adridadou.ethereum.propeller.values.UInt256;
+
+import java.nio.ByteBuffer;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
+/**
+ * Encodes a UInt256, or an EthValue in wei, directly from its limbs
+ * This code is released under Apache 2 license
+ */
+public class UInt256Encoder implements SolidityTypeEncoder {
+
+    @Override
+    public boolean canConvert(Class<?> type) {
+        return UInt256.class.equals(type) || EthValue.class.equals(type);
+    }
+
+    @Override
+    public EthData encode(Object arg, SolidityType solidityType) {
+        return toUInt256(arg, solidityType).toWord();
+    }
+
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return WORD_SIZE;
+    }
+
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        toUInt256(arg, solidityType).writeTo(buffer);
+    }
+
+    private UInt256 toUInt256(Object arg, SolidityType solidityType) {
+        UInt256 value;
+        if (arg instanceof EthValue) {
+            try {
+                value = ((EthValue) arg).inWeiUInt256();
+            } catch (ArithmeticException e) {
+                throw new EthereumApiException("cannot encode the value " + arg, e);
+            }
+        } else {
+            value = (UInt256) arg;
+        }
+        if (!solidityType.name().startsWith("U") && value.bitLength() == 256) {
+            throw new EthereumApiException("the value " + value + " is too big for the signed type " + solidityType.name().toLowerCase());
+        }
+        return value;
+    }
+}
@@ -28,7 +28,12 @@ public class ArrayEncoder extends CollectionEncoder {
 
     @Override
     public EthData encode(Object arg, SolidityType solidityType) {
-        return encode(Arrays.asList((Object[]) arg), solidityType);
+        return encode(toList(arg), solidityType);
+    }
+
+    @Override
+    List<?> toList(Object arg) {
+        return Arrays.asList((Object[]) arg);
     }
 
 
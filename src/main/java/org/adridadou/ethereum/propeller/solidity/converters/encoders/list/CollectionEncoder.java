@@ -2,68 +2,85 @@ package org.adridadou.ethereum.propeller.solidity.converters.encoders.list;
 
 import org.adridadou.ethereum.propeller.exception.EthereumApiException;
 import org.adridadou.ethereum.propeller.solidity.SolidityType;
+import org.adridadou.ethereum.propeller.solidity.converters.CodecBinding;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.NumberEncoder;
 import org.adridadou.ethereum.propeller.solidity.converters.encoders.SolidityTypeEncoder;
 import org.adridadou.ethereum.propeller.values.EthData;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
 /**
  * Created by davidroon on 04.04.17.
  * This code is released under Apache 2 license
  */
 public abstract class CollectionEncoder implements SolidityTypeEncoder {
-    private final NumberEncoder numberEncoder = new NumberEncoder();
-    private final List<SolidityTypeEncoder> encoders;
+    private final CodecBinding<SolidityTypeEncoder> encoders;
     private final int size;
     private final boolean isDynamic;
 
     CollectionEncoder(List<SolidityTypeEncoder> encoders) {
-        this.encoders = encoders;
-        this.size = 0;
-        this.isDynamic = true;
+        this(encoders, null);
     }
 
+    /**
+     * @param size The size of a fixed size array, null for a dynamic array
+     */
     CollectionEncoder(List<SolidityTypeEncoder> encoders, Integer size) {
-        this.encoders = encoders;
-        this.size = size;
-        this.isDynamic = false;
+        this.encoders = CodecBinding.encoders(encoders);
+        this.size = size == null ? 0 : size;
+        this.isDynamic = size == null;
     }
 
     public EthData encode(List<?> lst, SolidityType solidityType) {
-        if (isDynamic) {
-            return encodeDynamicSizeList(lst, solidityType);
-        }
-        return encodeFixedSizeList(lst, solidityType);
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(lst, solidityType));
+        encode(lst, solidityType, buffer);
+        return EthData.of(buffer.array());
     }
 
-    private EthData encodeDynamicSizeList(List<?> lst, SolidityType solidityType) {
-        EthData result = lst.stream()
-                .map(entry -> encoders.stream()
-                        .filter(enc -> enc.canConvert(entry.getClass()))
-                        .findFirst().orElseThrow(() -> new EthereumApiException("no encoder found for list entry"))
-                        .encode(entry, solidityType))
-                .reduce(EthData.empty(), EthData::merge);
+    @Override
+    public int encodedSize(Object arg, SolidityType solidityType) {
+        return encodedSize(toList(arg), solidityType);
+    }
 
-        return numberEncoder.encode(lst.size(), SolidityType.UINT).merge(result);
+    @Override
+    public void encode(Object arg, SolidityType solidityType, ByteBuffer buffer) {
+        encode(toList(arg), solidityType, buffer);
     }
 
-    private EthData encodeFixedSizeList(List<?> lst, SolidityType solidityType) {
-        int diff = size - lst.size();
-        if (diff < 0) {
-            throw new EthereumApiException("List size (" + lst.size() + ") != " + size + " for type " + solidityType.name() + "[" + size + "]");
+    abstract List<?> toList(Object arg);
+
+    private int encodedSize(List<?> lst, SolidityType solidityType) {
+        checkSize(lst, solidityType);
+        int result = isDynamic ? WORD_SIZE : (size - lst.size()) * WORD_SIZE;
+        for (Object entry : lst) {
+            result += findEncoder(entry).encodedSize(entry, solidityType);
         }
-        EthData result = lst.stream()
-                .map(entry -> encoders.stream()
-                        .filter(enc -> enc.canConvert(entry.getClass()))
-                        .findFirst().orElseThrow(() -> new EthereumApiException("no encoder found for list entry"))
-                        .encode(entry, solidityType))
-                .reduce(EthData.empty(), EthData::merge);
+        return result;
+    }
 
-        for (int i = 0; i < diff; i++) {
-            result = result.merge(EthData.emptyWord());
+    private void encode(List<?> lst, SolidityType solidityType, ByteBuffer buffer) {
+        checkSize(lst, solidityType);
+        if (isDynamic) {
+            NumberEncoder.writeWord(lst.size(), buffer);
         }
+        for (Object entry : lst) {
+            findEncoder(entry).encode(entry, solidityType, buffer);
+        }
+        if (!isDynamic) {
+            buffer.put(new byte[(size - lst.size()) * WORD_SIZE]);
+        }
+    }
 
-        return result;
+    private SolidityTypeEncoder findEncoder(Object entry) {
+        return encoders.find(entry.getClass()).orElseThrow(() -> new EthereumApiException("no encoder found for list entry"));
+    }
+
+    private void checkSize(List<?> lst, SolidityType solidityType) {
+        if (!isDynamic && lst.size() > size) {
+            throw new EthereumApiException("List size (" + lst.size() + ") != " + size + " for type " + solidityType.name() + "[" + size + "]");
+        }
     }
 }
@@ -0,0 +1,18 @@
+package org.adridadou.ethereum.propeller.solidity.converters.encoders.list;
+
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.SolidityTypeEncoder;
+
+import java.util.List;
+
+/**
+ * Creates a list encoder for an array parameter. The constructors of the list encoders can be used directly, e.g. ListEncoder::new
+ * This code is released under Apache 2 license
+ */
+@FunctionalInterface
+public interface CollectionEncoderFactory {
+    /**
+     * @param encoders The encoders of the element type
+     * @param size     The size of a fixed size array, null for a dynamic array
+     */
+    CollectionEncoder create(List<SolidityTypeEncoder> encoders, Integer size);
+}
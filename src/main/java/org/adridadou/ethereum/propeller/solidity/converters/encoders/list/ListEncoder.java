@@ -27,7 +27,12 @@ public class ListEncoder extends CollectionEncoder {
 
     @Override
     public EthData encode(Object arg, SolidityType solidityType) {
-        return encode((List) arg, solidityType);
+        return encode(toList(arg), solidityType);
+    }
+
+    @Override
+    List<?> toList(Object arg) {
+        return (List<?>) arg;
     }
 
 
@@ -29,7 +29,12 @@ public class SetEncoder extends CollectionEncoder {
 
     @Override
     public EthData encode(Object arg, SolidityType solidityType) {
-        return encode(Arrays.asList(((Set) arg).toArray()), solidityType);
+        return encode(toList(arg), solidityType);
+    }
+
+    @Override
+    List<?> toList(Object arg) {
+        return Arrays.asList(((Set) arg).toArray());
     }
 
 
@@ -0,0 +1,103 @@
+package org.adridadou.ethereum.propeller.util;
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+
+import java.util.Arrays;
+
+/**
+ * Table driven hex encoding and decoding, working on ranges so that a 0x prefix does not need a substring.
+ * Encoding produces lower case digits, decoding accepts both cases.
+ * This code is released under Apache 2 license
+ */
+public final class HexCodec {
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            VALUES['a' + i] = (byte) (10 + i);
+            VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private HexCodec() {
+    }
+
+    public static byte[] decode(CharSequence hex) {
+        return decode(hex, 0, hex.length());
+    }
+
+    /**
+     * @param hex  The hex string
+     * @param from The index of the first digit
+     * @param to   The index after the last digit
+     * @return The decoded bytes
+     */
+    public static byte[] decode(CharSequence hex, int from, int to) {
+        int length = checkLength(to - from);
+        byte[] result = new byte[length / 2];
+        for (int i = 0, j = from; i < result.length; i++, j += 2) {
+            result[i] = (byte) (value(hex.charAt(j)) << 4 | value(hex.charAt(j + 1)));
+        }
+        return result;
+    }
+
+    public static void decode(char[] hex, int from, int to, byte[] output, int outputOffset) {
+        int length = checkLength(to - from) / 2;
+        for (int i = 0, j = from; i < length; i++, j += 2) {
+            output[outputOffset + i] = (byte) (value(hex[j]) << 4 | value(hex[j + 1]));
+        }
+    }
+
+    public static String encode(byte[] data) {
+        return encode(data, 0, data.length);
+    }
+
+    public static String encode(byte[] data, int offset, int length) {
+        char[] result = new char[length * 2];
+        encode(data, offset, length, result, 0);
+        return new String(result);
+    }
+
+    public static String encodeWithLeading0x(byte[] data) {
+        char[] result = new char[data.length * 2 + 2];
+        result[0] = '0';
+        result[1] = 'x';
+        encode(data, 0, data.length, result, 2);
+        return new String(result);
+    }
+
+    public static void encode(byte[] data, int offset, int length, char[] output, int outputOffset) {
+        for (int i = 0, j = outputOffset; i < length; i++, j += 2) {
+            int b = data[offset + i];
+            output[j] = DIGITS[(b >> 4) & 0x0F];
+            output[j + 1] = DIGITS[b & 0x0F];
+        }
+    }
+
+    /**
+     * @return the index of the first digit, 2 if the string starts with 0x and 0 otherwise
+     */
+    public static int digitsStart(CharSequence hex) {
+        return hex.length() >= 2 && hex.charAt(0) == '0' && hex.charAt(1) == 'x' ? 2 : 0;
+    }
+
+    private static int checkLength(int length) {
+        if (length < 0 || (length & 1) != 0) {
+            throw new EthereumApiException("a hex string needs an even number of digits but has " + length);
+        }
+        return length;
+    }
+
+    private static int value(char c) {
+        int value = c < 128 ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new EthereumApiException("invalid hex digit '" + c + "'");
+        }
+        return value;
+    }
+}
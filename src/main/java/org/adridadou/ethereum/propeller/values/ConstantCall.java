@@ -0,0 +1,45 @@
+package org.adridadou.ethereum.propeller.values;
+
+/**
+ * A constant call to execute, as sent to the backend in a batch
+ * This code is released under Apache 2 license
+ */
+public class ConstantCall {
+    private final EthAccount account;
+    private final EthAddress address;
+    private final EthValue value;
+    private final EthData data;
+
+    public ConstantCall(EthAccount account, EthAddress address, EthValue value, EthData data) {
+        this.account = account;
+        this.address = address;
+        this.value = value;
+        this.data = data;
+    }
+
+    public EthAccount getAccount() {
+        return account;
+    }
+
+    public EthAddress getAddress() {
+        return address;
+    }
+
+    public EthValue getValue() {
+        return value;
+    }
+
+    public EthData getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstantCall{" +
+                "account=" + account +
+                ", address=" + address +
+                ", value=" + value +
+                ", data=" + data +
+                '}';
+    }
+}
@@ -1,7 +1,7 @@
 package org.adridadou.ethereum.propeller.values;
 
 import org.adridadou.ethereum.propeller.exception.EthereumApiException;
-import org.spongycastle.util.encoders.Hex;
+import org.adridadou.ethereum.propeller.util.HexCodec;
 
 import java.util.Arrays;
 
@@ -12,14 +12,16 @@ import java.util.Arrays;
 public final class EthAddress {
     private static final int MAX_ADDRESS_SIZE = 20;
     private static final byte[] EMPTY_ARRAY = new byte[0];
+    private static final EthAddress EMPTY = new EthAddress(EMPTY_ARRAY);
     public final byte[] address;
-
+    private final int hashCode;
 
     private EthAddress(byte[] address) {
         if (address.length > MAX_ADDRESS_SIZE) {
-            throw new EthereumApiException("byte array of the address cannot be bigger than 20.value:" + Hex.toHexString(address));
+            throw new EthereumApiException("byte array of the address cannot be bigger than 20.value:" + HexCodec.encode(address));
         }
         this.address = address;
+        this.hashCode = Arrays.hashCode(address);
     }
 
     public static EthAddress of(byte[] address) {
@@ -45,22 +47,23 @@ public final class EthAddress {
         if (address == null) {
             return empty();
         }
-        if (address.startsWith("0x")) {
-            return of(Hex.decode(address.substring(2)));
+        int start = HexCodec.digitsStart(address);
+        while (start + 1 < address.length() && address.charAt(start) == '0' && address.charAt(start + 1) == '0') {
+            start += 2;
         }
-        return of(Hex.decode(address));
+        return start == address.length() ? empty() : new EthAddress(HexCodec.decode(address, start, address.length()));
     }
 
     public static EthAddress empty() {
-        return EthAddress.of(EMPTY_ARRAY);
+        return EMPTY;
     }
 
     public String toString() {
-        return Hex.toHexString(address);
+        return HexCodec.encode(address);
     }
 
     public String withLeading0x() {
-        return "0x" + this.toString();
+        return HexCodec.encodeWithLeading0x(address);
     }
 
     @Override
@@ -72,16 +75,15 @@ public final class EthAddress {
             return false;
         }
         EthAddress that = (EthAddress) o;
-        return Arrays.equals(address, that.address);
-
+        return hashCode == that.hashCode && Arrays.equals(address, that.address);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(address);
+        return hashCode;
     }
 
     public boolean isEmpty() {
-        return Arrays.equals(this.address, EMPTY_ARRAY);
+        return address.length == 0;
     }
 }
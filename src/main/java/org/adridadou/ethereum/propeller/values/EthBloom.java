@@ -0,0 +1,140 @@
+package org.adridadou.ethereum.propeller.values;
+
+import org.adridadou.ethereum.propeller.Crypto;
+import org.adridadou.ethereum.propeller.exception.EthereumApiException;
+import org.adridadou.ethereum.propeller.util.HexCodec;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The 2048 bits logs bloom of a receipt or a block.
+ * Each address and topic sets three bits chosen from its keccak hash. A bloom can tell for sure that a value is absent,
+ * a value that seems present still has to be checked in the logs.
+ * This code is released under Apache 2 license
+ */
+public final class EthBloom {
+    public static final int SIZE = 256;
+    private static final int ADDRESS_SIZE = 20;
+    public final byte[] data;
+
+    private EthBloom(byte[] data) {
+        this.data = data;
+    }
+
+    public static EthBloom of(byte[] data) {
+        if (data.length != SIZE) {
+            throw new EthereumApiException("a bloom has " + SIZE + " bytes but got " + data.length);
+        }
+        return new EthBloom(data);
+    }
+
+    public static EthBloom of(final String data) {
+        return of(HexCodec.decode(data, HexCodec.digitsStart(data), data.length()));
+    }
+
+    public static EthBloom empty() {
+        return new EthBloom(new byte[SIZE]);
+    }
+
+    /**
+     * Computes the bloom of logs emitted by one contract
+     *
+     * @param emitter The address of the contract emitting the logs
+     * @param events  The logs
+     * @return The bloom containing the address and all the topics
+     */
+    public static EthBloom of(EthAddress emitter, List<EventInfo> events) {
+        byte[] bloom = new byte[SIZE];
+        if (events == null || events.isEmpty()) {
+            return new EthBloom(bloom);
+        }
+        add(bloom, padAddress(emitter));
+        for (EventInfo event : events) {
+            add(bloom, event.getEventSignature().data);
+            for (EthData topic : event.getIndexedArguments()) {
+                add(bloom, topic.data);
+            }
+        }
+        return new EthBloom(bloom);
+    }
+
+    public EthBloom with(EthAddress address) {
+        return with(padAddress(address));
+    }
+
+    public EthBloom with(EthData topic) {
+        return with(topic.data);
+    }
+
+    private EthBloom with(byte[] value) {
+        byte[] bloom = Arrays.copyOf(data, SIZE);
+        add(bloom, value);
+        return new EthBloom(bloom);
+    }
+
+    public EthBloom or(EthBloom other) {
+        byte[] bloom = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            bloom[i] = (byte) (data[i] | other.data[i]);
+        }
+        return new EthBloom(bloom);
+    }
+
+    /**
+     * @return false if at least one of the values added to the other bloom is not in this one
+     */
+    public boolean contains(EthBloom other) {
+        for (int i = 0; i < SIZE; i++) {
+            byte mask = other.data[i];
+            if (mask != 0 && (data[i] & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        for (byte b : data) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void add(byte[] bloom, byte[] value) {
+        byte[] hash = Crypto.sha3(value);
+        for (int i = 0; i < 6; i += 2) {
+            int bit = ((hash[i] & 0x07) << 8) | (hash[i + 1] & 0xFF);
+            bloom[SIZE - 1 - (bit >>> 3)] |= 1 << (bit & 0x07);
+        }
+    }
+
+    private static byte[] padAddress(EthAddress address) {
+        byte[] padded = new byte[ADDRESS_SIZE];
+        System.arraycopy(address.address, 0, padded, ADDRESS_SIZE - address.address.length, address.address.length);
+        return padded;
+    }
+
+    @Override
+    public String toString() {
+        return HexCodec.encode(data);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(data, ((EthBloom) o).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
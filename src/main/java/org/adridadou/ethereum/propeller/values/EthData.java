@@ -1,7 +1,7 @@
 package org.adridadou.ethereum.propeller.values;
 
 import org.apache.commons.lang.ArrayUtils;
-import org.spongycastle.util.encoders.Hex;
+import org.adridadou.ethereum.propeller.util.HexCodec;
 
 import java.math.BigInteger;
 import java.util.Arrays;
@@ -33,10 +33,7 @@ public final class EthData {
     }
 
     public static EthData of(final String data) {
-        if (data != null && data.startsWith("0x")) {
-            return of(Hex.decode(data.substring(2)));
-        }
-        return of(Hex.decode(data));
+        return of(HexCodec.decode(data, HexCodec.digitsStart(data), data.length()));
     }
 
     public static EthData empty() {
@@ -48,23 +45,31 @@ public final class EthData {
     }
 
     public static EthData of(int length) {
-        return EthData.of(BigInteger.valueOf(length));
+        return EthData.of((long) length);
     }
 
     public static EthData of(long length) {
-        return EthData.of(BigInteger.valueOf(length));
+        byte[] bytes = new byte[WORD_SIZE];
+        if (length < 0) {
+            Arrays.fill(bytes, 0, WORD_SIZE - Long.BYTES, (byte) -1);
+        }
+        for (int i = WORD_SIZE - 1; i >= WORD_SIZE - Long.BYTES; i--) {
+            bytes[i] = (byte) length;
+            length >>= 8;
+        }
+        return EthData.of(bytes);
     }
 
     public static EthData of(byte length) {
-        return EthData.of(BigInteger.valueOf(length));
+        return EthData.of((long) length);
     }
 
     public String withLeading0x() {
-        return "0x" + this.toString();
+        return HexCodec.encodeWithLeading0x(data);
     }
 
     public String toString() {
-        return Hex.toHexString(data);
+        return HexCodec.encode(data);
     }
 
     public EthData merge(EthData data) {
@@ -1,6 +1,6 @@
 package org.adridadou.ethereum.propeller.values;
 
-import org.spongycastle.util.encoders.Hex;
+import org.adridadou.ethereum.propeller.util.HexCodec;
 
 import java.util.Arrays;
 
@@ -10,9 +10,11 @@ import java.util.Arrays;
  */
 public final class EthHash {
     public final byte[] data;
+    private final int hashCode;
 
     private EthHash(byte[] data) {
         this.data = data;
+        this.hashCode = Arrays.hashCode(data);
     }
 
     public static EthHash of(byte[] data) {
@@ -20,10 +22,7 @@ public final class EthHash {
     }
 
     public static EthHash of(final String data) {
-        if (data != null && data.startsWith("0x")) {
-            return of(Hex.decode(data.substring(2)));
-        }
-        return of(Hex.decode(data));
+        return of(HexCodec.decode(data, HexCodec.digitsStart(data), data.length()));
     }
 
     public static EthHash empty() {
@@ -31,11 +30,11 @@ public final class EthHash {
     }
 
     public String withLeading0x() {
-        return "0x" + this.toString();
+        return HexCodec.encodeWithLeading0x(data);
     }
 
     public String toString() {
-        return Hex.toHexString(data);
+        return HexCodec.encode(data);
     }
 
     @Override
@@ -49,12 +48,12 @@ public final class EthHash {
 
         EthHash ethData = (EthHash) o;
 
-        return Arrays.equals(data, ethData.data);
+        return hashCode == ethData.hashCode && Arrays.equals(data, ethData.data);
 
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(data);
+        return hashCode;
     }
 }
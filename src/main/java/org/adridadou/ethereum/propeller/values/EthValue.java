@@ -11,10 +11,23 @@ import java.util.Objects;
  */
 public class EthValue implements Comparable<EthValue> {
     private static final BigDecimal ETHER_CONVERSION = BigDecimal.valueOf(1_000_000_000_000_000_000L);
-    private final BigDecimal value;
+    // the amount in wei, kept in a UInt256 when it fits and in a BigInteger otherwise (negative differences)
+    private final UInt256 wei;
+    private final BigInteger bigWei;
 
     public EthValue(BigInteger value) {
-        this.value = new BigDecimal(value);
+        if (UInt256.fits(value)) {
+            this.wei = UInt256.of(value);
+            this.bigWei = null;
+        } else {
+            this.wei = null;
+            this.bigWei = value;
+        }
+    }
+
+    private EthValue(UInt256 value) {
+        this.wei = value;
+        this.bigWei = null;
     }
 
     public static EthValue ether(final BigInteger value) {
@@ -34,55 +47,92 @@ public class EthValue implements Comparable<EthValue> {
     }
 
     public static EthValue wei(final int value) {
-        return wei(BigInteger.valueOf(value));
+        return wei((long) value);
     }
 
     public static EthValue wei(final long value) {
-        return wei(BigInteger.valueOf(value));
+        return value >= 0 ? new EthValue(UInt256.of(value)) : wei(BigInteger.valueOf(value));
     }
 
     public static EthValue wei(final BigInteger value) {
         return new EthValue(value);
     }
 
+    public static EthValue wei(final UInt256 value) {
+        return new EthValue(value);
+    }
+
     public BigInteger inWei() {
-        return value.toBigInteger();
+        return wei != null ? wei.toBigInteger() : bigWei;
+    }
+
+    /**
+     * @return the amount in wei
+     * @throws ArithmeticException if the amount is negative
+     */
+    public UInt256 inWeiUInt256() {
+        if (wei == null) {
+            throw new ArithmeticException("the value " + bigWei + " does not fit in a UInt256");
+        }
+        return wei;
     }
 
     public BigDecimal inEth() {
-        return value
+        return new BigDecimal(inWei())
                 .divide(ETHER_CONVERSION, BigDecimal.ROUND_FLOOR);
     }
 
     public boolean isZero() {
-        return inWei().signum() != 1;
+        return wei != null ? wei.isZero() : bigWei.signum() != 1;
     }
 
     public EthValue plus(EthValue value) {
-        return new EthValue(this.value.add(value.value).toBigInteger());
+        if (wei != null && value.wei != null) {
+            UInt256 result = wei.tryAdd(value.wei);
+            if (result != null) {
+                return new EthValue(result);
+            }
+        }
+        return new EthValue(inWei().add(value.inWei()));
     }
 
     public EthValue minus(EthValue value) {
-        return new EthValue(this.value.subtract(value.value).toBigInteger());
+        if (wei != null && value.wei != null) {
+            UInt256 result = wei.trySubtract(value.wei);
+            if (result != null) {
+                return new EthValue(result);
+            }
+        }
+        return new EthValue(inWei().subtract(value.inWei()));
     }
 
     @Override
     public int compareTo(EthValue o) {
-        return value.compareTo(o.value);
+        if (wei != null && o.wei != null) {
+            return wei.compareTo(o.wei);
+        }
+        return inWei().compareTo(o.inWei());
     }
 
     @Override
     public boolean equals(Object o) {
-        return o != null && Objects.equals(value, ((EthValue) o).value);
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        EthValue that = (EthValue) o;
+        return Objects.equals(wei, that.wei) && Objects.equals(bigWei, that.bigWei);
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return wei != null ? wei.hashCode() : bigWei.hashCode();
     }
 
     @Override
     public String toString() {
-        return value + " Wei";
+        return (wei != null ? wei.toString() : bigWei.toString()) + " Wei";
     }
 }
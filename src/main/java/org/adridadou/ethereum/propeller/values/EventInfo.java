@@ -7,16 +7,29 @@ import java.util.List;
  * This code is released under Apache 2 license
  */
 public class EventInfo {
+    private final EthAddress emitter;
     private final EthData eventSignature;
     private final EthData eventArguments;
     private final List<EthData> indexedArguments;
 
     public EventInfo(EthData eventSignature, EthData eventArguments, List<EthData> indexedArguments) {
+        this(null, eventSignature, eventArguments, indexedArguments);
+    }
+
+    public EventInfo(EthAddress emitter, EthData eventSignature, EthData eventArguments, List<EthData> indexedArguments) {
+        this.emitter = emitter;
         this.eventSignature = eventSignature;
         this.eventArguments = eventArguments;
         this.indexedArguments = indexedArguments;
     }
 
+    /**
+     * @return the address of the contract that emitted the log, null if the backend does not report it
+     */
+    public EthAddress getEmitter() {
+        return emitter;
+    }
+
     public List<EthData> getIndexedArguments() {
         return indexedArguments;
     }
@@ -0,0 +1,129 @@
+package org.adridadou.ethereum.propeller.values;
+
+import static org.adridadou.ethereum.propeller.values.UInt256.borrow;
+import static org.adridadou.ethereum.propeller.values.UInt256.carry;
+
+/**
+ * A {@link UInt256} accumulator updated in place, for sums over many values.
+ * <pre>
+ * MutableUInt256 total = new MutableUInt256();
+ * balances.forEach(total::add);
+ * UInt256 result = total.toUInt256();
+ * </pre>
+ * It is not thread safe.
+ * This code is released under Apache 2 license
+ */
+public final class MutableUInt256 implements Comparable<UInt256> {
+    private long l0;
+    private long l1;
+    private long l2;
+    private long l3;
+
+    public MutableUInt256() {
+    }
+
+    public MutableUInt256(UInt256 value) {
+        set(value);
+    }
+
+    public MutableUInt256 set(UInt256 value) {
+        l0 = value.l0;
+        l1 = value.l1;
+        l2 = value.l2;
+        l3 = value.l3;
+        return this;
+    }
+
+    public MutableUInt256 setZero() {
+        l0 = 0;
+        l1 = 0;
+        l2 = 0;
+        l3 = 0;
+        return this;
+    }
+
+    public MutableUInt256 add(UInt256 value) {
+        return add(value.l0, value.l1, value.l2, value.l3);
+    }
+
+    public MutableUInt256 add(long value) {
+        if (value < 0) {
+            throw new ArithmeticException("cannot add the negative value " + value);
+        }
+        return add(value, 0, 0, 0);
+    }
+
+    /**
+     * Adds the value. On overflow an {@link ArithmeticException} is thrown and the accumulator is left unchanged
+     */
+    private MutableUInt256 add(long v0, long v1, long v2, long v3) {
+        long r0 = l0 + v0;
+        long c = Long.compareUnsigned(r0, l0) < 0 ? 1 : 0;
+        long r1 = l1 + v1 + c;
+        c = carry(r1, l1, c);
+        long r2 = l2 + v2 + c;
+        c = carry(r2, l2, c);
+        long r3 = l3 + v3 + c;
+        c = carry(r3, l3, c);
+        if (c != 0) {
+            throw new ArithmeticException("UInt256 overflow");
+        }
+        l0 = r0;
+        l1 = r1;
+        l2 = r2;
+        l3 = r3;
+        return this;
+    }
+
+    /**
+     * Subtracts the value. If the result would be negative an {@link ArithmeticException} is thrown and the accumulator is left unchanged
+     */
+    public MutableUInt256 subtract(UInt256 value) {
+        long r0 = l0 - value.l0;
+        long b = Long.compareUnsigned(l0, value.l0) < 0 ? 1 : 0;
+        long r1 = l1 - value.l1 - b;
+        b = borrow(l1, value.l1, b);
+        long r2 = l2 - value.l2 - b;
+        b = borrow(l2, value.l2, b);
+        long r3 = l3 - value.l3 - b;
+        b = borrow(l3, value.l3, b);
+        if (b != 0) {
+            throw new ArithmeticException("UInt256 underflow");
+        }
+        l0 = r0;
+        l1 = r1;
+        l2 = r2;
+        l3 = r3;
+        return this;
+    }
+
+    public boolean isZero() {
+        return (l0 | l1 | l2 | l3) == 0;
+    }
+
+    public UInt256 toUInt256() {
+        return new UInt256(l0, l1, l2, l3);
+    }
+
+    @Override
+    public int compareTo(UInt256 other) {
+        int cmp = Long.compareUnsigned(l3, other.l3);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compareUnsigned(l2, other.l2);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compareUnsigned(l1, other.l1);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Long.compareUnsigned(l0, other.l0);
+    }
+
+    @Override
+    public String toString() {
+        return toUInt256().toString();
+    }
+}
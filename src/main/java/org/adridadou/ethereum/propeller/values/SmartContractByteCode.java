@@ -2,7 +2,7 @@ package org.adridadou.ethereum.propeller.values;
 
 import org.adridadou.ethereum.propeller.exception.EthereumApiException;
 import org.adridadou.ethereum.propeller.swarm.SwarmHash;
-import org.spongycastle.util.encoders.Hex;
+import org.adridadou.ethereum.propeller.util.HexCodec;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
@@ -30,7 +30,7 @@ public final class SmartContractByteCode {
     }
 
     public static SmartContractByteCode of(String code) {
-        return new SmartContractByteCode(Hex.decode(code));
+        return new SmartContractByteCode(HexCodec.decode(code));
     }
 
     public Optional<SwarmMetadaLink> getMetadaLink() {
@@ -64,7 +64,7 @@ public final class SmartContractByteCode {
     }
 
     public String toString() {
-        return Hex.toHexString(code);
+        return HexCodec.encode(code);
     }
 
     public boolean isEmpty() {
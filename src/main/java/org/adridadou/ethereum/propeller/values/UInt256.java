@@ -0,0 +1,432 @@
+package org.adridadou.ethereum.propeller.values;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static org.adridadou.ethereum.propeller.values.EthData.WORD_SIZE;
+
+/**
+ * An unsigned 256 bits integer stored in four longs, the range of a solidity uint256.
+ * Arithmetic is exact: an operation whose result does not fit throws an {@link ArithmeticException}.
+ * Use {@link MutableUInt256} to accumulate values without allocating.
+ * This code is released under Apache 2 license
+ */
+public final class UInt256 implements Comparable<UInt256> {
+    public static final UInt256 ZERO = new UInt256(0, 0, 0, 0);
+    public static final UInt256 ONE = new UInt256(1, 0, 0, 0);
+    public static final UInt256 MAX_VALUE = new UInt256(-1, -1, -1, -1);
+
+    private static final long INT_MASK = 0xFFFFFFFFL;
+    private static final int DIGITS = 8;
+
+    // l0 holds the least significant bits
+    final long l0;
+    final long l1;
+    final long l2;
+    final long l3;
+
+    UInt256(long l0, long l1, long l2, long l3) {
+        this.l0 = l0;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.l3 = l3;
+    }
+
+    public static UInt256 of(long value) {
+        if (value < 0) {
+            throw new ArithmeticException("UInt256 cannot hold the negative value " + value);
+        }
+        return value == 0 ? ZERO : new UInt256(value, 0, 0, 0);
+    }
+
+    public static UInt256 of(BigInteger value) {
+        if (value.signum() < 0 || value.bitLength() > 256) {
+            throw new ArithmeticException("value out of the UInt256 range: " + value);
+        }
+        if (value.bitLength() < Long.SIZE) {
+            return of(value.longValue());
+        }
+        return new UInt256(value.longValue(), value.shiftRight(64).longValue(), value.shiftRight(128).longValue(), value.shiftRight(192).longValue());
+    }
+
+    static boolean fits(BigInteger value) {
+        return value.signum() >= 0 && value.bitLength() <= 256;
+    }
+
+    /**
+     * Reads a 32 bytes big endian word
+     */
+    public static UInt256 fromWord(byte[] data, int offset) {
+        if (offset + WORD_SIZE > data.length) {
+            throw new IndexOutOfBoundsException("a word needs " + WORD_SIZE + " bytes from offset " + offset + " but the data has " + data.length);
+        }
+        return new UInt256(readLong(data, offset + 24), readLong(data, offset + 16), readLong(data, offset + 8), readLong(data, offset));
+    }
+
+    /**
+     * Reads the word at the index, an index is counted in words
+     */
+    public static UInt256 fromWord(EthData data, int index) {
+        return fromWord(data.data, index * WORD_SIZE);
+    }
+
+    private static long readLong(byte[] data, int offset) {
+        long result = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            result = (result << 8) | (data[offset + i] & 0xFFL);
+        }
+        return result;
+    }
+
+    public UInt256 add(UInt256 other) {
+        UInt256 result = tryAdd(other);
+        if (result == null) {
+            throw new ArithmeticException("UInt256 overflow");
+        }
+        return result;
+    }
+
+    /**
+     * @return the sum or null if it overflows
+     */
+    UInt256 tryAdd(UInt256 other) {
+        long r0 = l0 + other.l0;
+        long c = Long.compareUnsigned(r0, l0) < 0 ? 1 : 0;
+        long r1 = l1 + other.l1 + c;
+        c = carry(r1, l1, c);
+        long r2 = l2 + other.l2 + c;
+        c = carry(r2, l2, c);
+        long r3 = l3 + other.l3 + c;
+        c = carry(r3, l3, c);
+        return c != 0 ? null : new UInt256(r0, r1, r2, r3);
+    }
+
+    public UInt256 subtract(UInt256 other) {
+        UInt256 result = trySubtract(other);
+        if (result == null) {
+            throw new ArithmeticException("UInt256 underflow");
+        }
+        return result;
+    }
+
+    /**
+     * @return the difference or null if it is negative
+     */
+    UInt256 trySubtract(UInt256 other) {
+        long r0 = l0 - other.l0;
+        long b = Long.compareUnsigned(l0, other.l0) < 0 ? 1 : 0;
+        long r1 = l1 - other.l1 - b;
+        b = borrow(l1, other.l1, b);
+        long r2 = l2 - other.l2 - b;
+        b = borrow(l2, other.l2, b);
+        long r3 = l3 - other.l3 - b;
+        b = borrow(l3, other.l3, b);
+        return b != 0 ? null : new UInt256(r0, r1, r2, r3);
+    }
+
+    static long carry(long sum, long operand, long carryIn) {
+        int cmp = Long.compareUnsigned(sum, operand);
+        return cmp < 0 || (cmp == 0 && carryIn != 0) ? 1 : 0;
+    }
+
+    static long borrow(long minuend, long subtrahend, long borrowIn) {
+        int cmp = Long.compareUnsigned(minuend, subtrahend);
+        return cmp < 0 || (cmp == 0 && borrowIn != 0) ? 1 : 0;
+    }
+
+    public UInt256 multiply(UInt256 other) {
+        if ((l1 | l2 | l3 | other.l1 | other.l2 | other.l3) == 0 && (l0 >>> 32) == 0 && (other.l0 >>> 32) == 0) {
+            return new UInt256(l0 * other.l0, 0, 0, 0);
+        }
+        int[] product = multiplyDigits(toDigits(), other.toDigits());
+        for (int i = DIGITS; i < product.length; i++) {
+            if (product[i] != 0) {
+                throw new ArithmeticException("UInt256 overflow");
+            }
+        }
+        return fromDigits(product);
+    }
+
+    public UInt256 divide(UInt256 divisor) {
+        if ((l1 | l2 | l3 | divisor.l1 | divisor.l2 | divisor.l3) == 0) {
+            if (divisor.l0 == 0) {
+                throw new ArithmeticException("division by zero");
+            }
+            return new UInt256(Long.divideUnsigned(l0, divisor.l0), 0, 0, 0);
+        }
+        return fromDigits(divideDigits(toDigits(), divisor.toDigits(), null));
+    }
+
+    public UInt256 mod(UInt256 divisor) {
+        if ((l1 | l2 | l3 | divisor.l1 | divisor.l2 | divisor.l3) == 0) {
+            if (divisor.l0 == 0) {
+                throw new ArithmeticException("division by zero");
+            }
+            return new UInt256(Long.remainderUnsigned(l0, divisor.l0), 0, 0, 0);
+        }
+        int[] remainder = new int[DIGITS];
+        divideDigits(toDigits(), divisor.toDigits(), remainder);
+        return fromDigits(remainder);
+    }
+
+    /**
+     * Computes this * multiplier / divisor rounded down, the product being kept on 512 bits.
+     * Useful for proportions such as amount * rate / 10^18 where the product alone could overflow
+     */
+    public UInt256 mulDiv(UInt256 multiplier, UInt256 divisor) {
+        int[] quotient = divideDigits(multiplyDigits(toDigits(), multiplier.toDigits()), divisor.toDigits(), null);
+        for (int i = DIGITS; i < quotient.length; i++) {
+            if (quotient[i] != 0) {
+                throw new ArithmeticException("UInt256 overflow");
+            }
+        }
+        return fromDigits(quotient);
+    }
+
+    public boolean isZero() {
+        return (l0 | l1 | l2 | l3) == 0;
+    }
+
+    /**
+     * @return the number of bits needed to represent the value, 0 for zero
+     */
+    public int bitLength() {
+        if (l3 != 0) {
+            return 256 - Long.numberOfLeadingZeros(l3);
+        }
+        if (l2 != 0) {
+            return 192 - Long.numberOfLeadingZeros(l2);
+        }
+        if (l1 != 0) {
+            return 128 - Long.numberOfLeadingZeros(l1);
+        }
+        return 64 - Long.numberOfLeadingZeros(l0);
+    }
+
+    /**
+     * @return true if the value can be returned by {@link #longValueExact()}
+     */
+    public boolean fitsInLong() {
+        return (l1 | l2 | l3) == 0 && l0 >= 0;
+    }
+
+    public long longValueExact() {
+        if (!fitsInLong()) {
+            throw new ArithmeticException("UInt256 out of long range");
+        }
+        return l0;
+    }
+
+    public BigInteger toBigInteger() {
+        if (fitsInLong()) {
+            return BigInteger.valueOf(l0);
+        }
+        byte[] bytes = new byte[WORD_SIZE + 1];
+        writeLong(l3, bytes, 1);
+        writeLong(l2, bytes, 9);
+        writeLong(l1, bytes, 17);
+        writeLong(l0, bytes, 25);
+        return new BigInteger(bytes);
+    }
+
+    /**
+     * @return the value as a 32 bytes ABI word
+     */
+    public EthData toWord() {
+        byte[] bytes = new byte[WORD_SIZE];
+        writeLong(l3, bytes, 0);
+        writeLong(l2, bytes, 8);
+        writeLong(l1, bytes, 16);
+        writeLong(l0, bytes, 24);
+        return EthData.of(bytes);
+    }
+
+    /**
+     * Writes the value as a 32 bytes ABI word
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(l3);
+        buffer.putLong(l2);
+        buffer.putLong(l1);
+        buffer.putLong(l0);
+    }
+
+    private static void writeLong(long value, byte[] bytes, int offset) {
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private int[] toDigits() {
+        return new int[]{(int) l0, (int) (l0 >>> 32), (int) l1, (int) (l1 >>> 32), (int) l2, (int) (l2 >>> 32), (int) l3, (int) (l3 >>> 32)};
+    }
+
+    private static UInt256 fromDigits(int[] digits) {
+        return new UInt256(toLong(digits, 0), toLong(digits, 2), toLong(digits, 4), toLong(digits, 6));
+    }
+
+    private static long toLong(int[] digits, int index) {
+        long low = index < digits.length ? digits[index] & INT_MASK : 0;
+        long high = index + 1 < digits.length ? digits[index + 1] & INT_MASK : 0;
+        return high << 32 | low;
+    }
+
+    private static int[] multiplyDigits(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i] & INT_MASK;
+            if (ai == 0) {
+                continue;
+            }
+            long carry = 0;
+            for (int j = 0; j < b.length; j++) {
+                long t = ai * (b[j] & INT_MASK) + (result[i + j] & INT_MASK) + carry;
+                result[i + j] = (int) t;
+                carry = t >>> 32;
+            }
+            result[i + b.length] = (int) carry;
+        }
+        return result;
+    }
+
+    /**
+     * Long division on 32 bits digits, little endian (Knuth, algorithm D)
+     *
+     * @param remainder if not null, receives the remainder. It needs as many digits as the divisor
+     * @return the quotient, with as many digits as the dividend
+     */
+    private static int[] divideDigits(int[] dividend, int[] divisor, int[] remainder) {
+        int n = significantDigits(divisor);
+        if (n == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        int m = significantDigits(dividend);
+        int[] quotient = new int[dividend.length];
+        if (m < n) {
+            if (remainder != null) {
+                System.arraycopy(dividend, 0, remainder, 0, m);
+            }
+            return quotient;
+        }
+        if (n == 1) {
+            long d = divisor[0] & INT_MASK;
+            long r = 0;
+            for (int j = m - 1; j >= 0; j--) {
+                long current = r << 32 | (dividend[j] & INT_MASK);
+                quotient[j] = (int) Long.divideUnsigned(current, d);
+                r = Long.remainderUnsigned(current, d);
+            }
+            if (remainder != null) {
+                remainder[0] = (int) r;
+            }
+            return quotient;
+        }
+
+        // normalize so that the top digit of the divisor has its high bit set
+        int s = Integer.numberOfLeadingZeros(divisor[n - 1]);
+        int[] vn = new int[n];
+        for (int i = n - 1; i > 0; i--) {
+            vn[i] = (int) (((divisor[i] & INT_MASK) << s) | ((divisor[i - 1] & INT_MASK) >>> (32 - s)));
+        }
+        vn[0] = divisor[0] << s;
+        int[] un = new int[m + 1];
+        un[m] = (int) ((dividend[m - 1] & INT_MASK) >>> (32 - s));
+        for (int i = m - 1; i > 0; i--) {
+            un[i] = (int) (((dividend[i] & INT_MASK) << s) | ((dividend[i - 1] & INT_MASK) >>> (32 - s)));
+        }
+        un[0] = dividend[0] << s;
+
+        long vTop = vn[n - 1] & INT_MASK;
+        long vNext = vn[n - 2] & INT_MASK;
+        for (int j = m - n; j >= 0; j--) {
+            long numerator = (un[j + n] & INT_MASK) << 32 | (un[j + n - 1] & INT_MASK);
+            long qhat = Long.divideUnsigned(numerator, vTop);
+            long rhat = Long.remainderUnsigned(numerator, vTop);
+            while (qhat > INT_MASK || Long.compareUnsigned(qhat * vNext, rhat << 32 | (un[j + n - 2] & INT_MASK)) > 0) {
+                qhat--;
+                rhat += vTop;
+                if (rhat > INT_MASK) {
+                    break;
+                }
+            }
+
+            long borrow = 0;
+            long t;
+            for (int i = 0; i < n; i++) {
+                long p = qhat * (vn[i] & INT_MASK);
+                t = (un[i + j] & INT_MASK) - borrow - (p & INT_MASK);
+                un[i + j] = (int) t;
+                borrow = (p >>> 32) - (t >> 32);
+            }
+            t = (un[j + n] & INT_MASK) - borrow;
+            un[j + n] = (int) t;
+
+            quotient[j] = (int) qhat;
+            if (t < 0) {
+                quotient[j]--;
+                long carry = 0;
+                for (int i = 0; i < n; i++) {
+                    t = (un[i + j] & INT_MASK) + (vn[i] & INT_MASK) + carry;
+                    un[i + j] = (int) t;
+                    carry = t >>> 32;
+                }
+                un[j + n] += (int) carry;
+            }
+        }
+
+        if (remainder != null) {
+            for (int i = 0; i < n; i++) {
+                remainder[i] = (int) (((un[i] & INT_MASK) >>> s) | ((un[i + 1] & INT_MASK) << (32 - s)));
+            }
+        }
+        return quotient;
+    }
+
+    private static int significantDigits(int[] digits) {
+        int length = digits.length;
+        while (length > 0 && digits[length - 1] == 0) {
+            length--;
+        }
+        return length;
+    }
+
+    @Override
+    public int compareTo(UInt256 other) {
+        int cmp = Long.compareUnsigned(l3, other.l3);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compareUnsigned(l2, other.l2);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compareUnsigned(l1, other.l1);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Long.compareUnsigned(l0, other.l0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UInt256 that = (UInt256) o;
+        return l0 == that.l0 && l1 == that.l1 && l2 == that.l2 && l3 == that.l3;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(l0) * 31 * 31 * 31 + Long.hashCode(l1) * 31 * 31 + Long.hashCode(l2) * 31 + Long.hashCode(l3);
+    }
+
+    @Override
+    public String toString() {
+        return fitsInLong() ? Long.toString(l0) : toBigInteger().toString();
+    }
+}
@@ -5,9 +5,11 @@ import org.adridadou.ethereum.propeller.event.EthereumEventHandler;
 import org.adridadou.ethereum.propeller.event.TransactionInfo;
 import org.adridadou.ethereum.propeller.event.TransactionStatus;
 import org.adridadou.ethereum.propeller.values.EthAddress;
+import org.adridadou.ethereum.propeller.values.EthBloom;
 import org.adridadou.ethereum.propeller.values.EthData;
 import org.adridadou.ethereum.propeller.values.EthHash;
 import org.adridadou.ethereum.propeller.values.EventInfo;
+import org.adridadou.ethereum.propeller.values.GasUsage;
 import org.ethereum.core.Block;
 import org.ethereum.core.Transaction;
 import org.ethereum.core.TransactionReceipt;
@@ -15,6 +17,7 @@ import org.ethereum.listener.EthereumListenerAdapter;
 import org.ethereum.vm.DataWord;
 import org.ethereum.vm.LogInfo;
 
+import java.math.BigInteger;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,7 +34,7 @@ public class EthJEventListener extends EthereumListenerAdapter {
 
     @Override
     public void onBlock(Block block, List<TransactionReceipt> receipts) {
-        eventHandler.onBlock(new BlockInfo(block.getNumber(), receipts.stream().map(this::toReceipt).collect(Collectors.toList())));
+        eventHandler.onBlock(new BlockInfo(block.getNumber(), receipts.stream().map(this::toReceipt).collect(Collectors.toList()), EthBloom.of(block.getLogBloom())));
         receipts.forEach(receipt -> eventHandler.onTransactionExecuted(new TransactionInfo(toReceipt(receipt), TransactionStatus.Executed)));
     }
 
@@ -55,7 +58,7 @@ public class EthJEventListener extends EthereumListenerAdapter {
                     .map(dw -> EthData.of(dw.getData()))
                     .collect(Collectors.toList());
 
-            return new EventInfo(eventSignature, eventArguments, indexedArguments);
+            return new EventInfo(EthAddress.of(log.getAddress()), eventSignature, eventArguments, indexedArguments);
         }).collect(Collectors.toList());
     }
 
@@ -66,6 +69,6 @@ public class EthJEventListener extends EthereumListenerAdapter {
 
     private org.adridadou.ethereum.propeller.event.TransactionReceipt toReceipt(TransactionReceipt transactionReceipt) {
         Transaction tx = transactionReceipt.getTransaction();
-        return new org.adridadou.ethereum.propeller.event.TransactionReceipt(EthHash.of(tx.getHash()), EthAddress.of(tx.getSender()), EthAddress.of(tx.getReceiveAddress()), EthAddress.of(tx.getContractAddress()), transactionReceipt.getError(), EthData.of(transactionReceipt.getExecutionResult()), transactionReceipt.isSuccessful() && transactionReceipt.isValid(), createEventInfoList(transactionReceipt.getLogInfoList()));
+        return new org.adridadou.ethereum.propeller.event.TransactionReceipt(EthHash.of(tx.getHash()), EthAddress.of(tx.getSender()), EthAddress.of(tx.getReceiveAddress()), EthAddress.of(tx.getContractAddress()), transactionReceipt.getError(), EthData.of(transactionReceipt.getExecutionResult()), transactionReceipt.isSuccessful() && transactionReceipt.isValid(), createEventInfoList(transactionReceipt.getLogInfoList()), new GasUsage(new BigInteger(1, transactionReceipt.getGasUsed())), EthBloom.of(transactionReceipt.getBloomFilter().getData()));
     }
 }
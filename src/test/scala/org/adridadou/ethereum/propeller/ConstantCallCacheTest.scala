@@ -0,0 +1,70 @@
+package org.adridadou.ethereum.propeller
+
+import org.adridadou.ethereum.propeller.values.{EthAddress, EthData}
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class ConstantCallCacheTest extends FlatSpec with Matchers with Checkers {
+  private val sender = EthAddress.of("0x01")
+  private val token = EthAddress.of("0x1234")
+  private val registry = EthAddress.of("0x5678")
+  private val balanceOf = EthData.of("0x70a08231")
+  private val totalSupply = EthData.of("0x18160ddd")
+  private val result = EthData.of("0x2a")
+
+  "ConstantCallCache" should "return the results stored for the current block" in {
+    val cache = new ConstantCallCache(10, 5)
+    cache.put(sender, token, balanceOf, result, 5)
+    cache.get(sender, token, balanceOf).get shouldEqual result
+    cache.get(registry, token, balanceOf).isPresent shouldEqual false
+    cache.get(sender, token, totalSupply).isPresent shouldEqual false
+  }
+
+  it should "not store a result computed for another block" in {
+    val cache = new ConstantCallCache(10, 5)
+    cache.put(sender, token, balanceOf, result, 4)
+    cache.get(sender, token, balanceOf).isPresent shouldEqual false
+  }
+
+  it should "drop every result when a new block arrives" in {
+    val cache = new ConstantCallCache(10, 5)
+    cache.put(sender, token, balanceOf, result, 5)
+    cache.onBlock(5)
+    cache.get(sender, token, balanceOf).isPresent shouldEqual true
+
+    cache.onBlock(6)
+    cache.getCurrentBlock shouldEqual 6
+    cache.size shouldEqual 0
+    cache.put(sender, token, balanceOf, result, 5)
+    cache.get(sender, token, balanceOf).isPresent shouldEqual false
+  }
+
+  it should "only drop the results of the invalidated contract" in {
+    val cache = new ConstantCallCache(10, 5)
+    cache.put(sender, token, balanceOf, result, 5)
+    cache.put(sender, token, totalSupply, result, 5)
+    cache.put(sender, registry, balanceOf, result, 5)
+
+    cache.invalidate(token)
+    cache.get(sender, token, balanceOf).isPresent shouldEqual false
+    cache.get(sender, token, totalSupply).isPresent shouldEqual false
+    cache.get(sender, registry, balanceOf).isPresent shouldEqual true
+    cache.size shouldEqual 1
+  }
+
+  it should "keep the contract index in line with the evicted results" in {
+    val cache = new ConstantCallCache(2, 5)
+    cache.put(sender, token, balanceOf, result, 5)
+    cache.put(sender, registry, balanceOf, result, 5)
+    cache.put(sender, registry, totalSupply, result, 5)
+    cache.get(sender, token, balanceOf).isPresent shouldEqual false
+
+    cache.put(sender, token, balanceOf, result, 5)
+    cache.invalidate(registry)
+    cache.size shouldEqual 1
+    cache.get(sender, token, balanceOf).isPresent shouldEqual true
+  }
+}
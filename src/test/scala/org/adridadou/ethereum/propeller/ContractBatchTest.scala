@@ -0,0 +1,82 @@
+package org.adridadou.ethereum.propeller
+
+import java.math.BigInteger
+import java.util.concurrent.ExecutionException
+import java.{util => ju}
+
+import org.adridadou.ethereum.propeller.event.EthereumEventHandler
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.solidity.SolidityContractDetails
+import org.adridadou.ethereum.propeller.solidity.converters.SolidityTypeGroup
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.NumberDecoder
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.NumberEncoder
+import org.adridadou.ethereum.propeller.values.{ConstantCall, EthAccount, EthAddress, EthData}
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+trait Echo {
+  def echo(v: BigInteger): BigInteger
+}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class ContractBatchTest extends FlatSpec with Matchers with Checkers {
+  private val abi = "[{\"constant\":true,\"inputs\":[{\"name\":\"v\",\"type\":\"uint256\"}],\"name\":\"echo\"," +
+    "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}],\"payable\":false,\"type\":\"function\"}]"
+  private val account = new EthAccount(BigInteger.ONE)
+
+  private def newBatch(backend: StubBackend): (ContractBatch, Echo) = {
+    val proxy = new EthereumProxy(backend, new EthereumEventHandler, EthereumConfig.builder().build())
+      .addEncoder(SolidityTypeGroup.Number, new NumberEncoder)
+      .addDecoder(SolidityTypeGroup.Number, new NumberDecoder)
+    val contract = new ContractProxyFactory(proxy)
+      .createProxy(classOf[Echo], new SolidityContractDetails(abi, null, null), EthAddress.of("0x1234"), account)
+    (new ContractBatch(proxy), contract)
+  }
+
+  private def failure(future: ju.concurrent.CompletableFuture[BigInteger]): Throwable = {
+    future.isCompletedExceptionally shouldEqual true
+    intercept[ExecutionException](future.get()).getCause
+  }
+
+  "ContractBatch" should "complete each future with the result of its call" in {
+    val backend = new StubBackend
+    val (batch, contract) = newBatch(backend)
+    val first = batch.add(contract, (c: Echo) => c.echo(BigInteger.ONE))
+    val second = batch.add(contract, (c: Echo) => c.echo(BigInteger.TEN))
+    backend.constantCallCount.get shouldEqual 0
+
+    batch.execute()
+    first.get shouldEqual BigInteger.ONE
+    second.get shouldEqual BigInteger.TEN
+    batch.size shouldEqual 0
+  }
+
+  it should "fail every future if the backend does not return one result per call" in {
+    val backend = new StubBackend {
+      override def constantCalls(calls: ju.List[ConstantCall]): ju.List[EthData] = ju.Collections.singletonList(answer(calls.get(0).getData))
+    }
+    val (batch, contract) = newBatch(backend)
+    val first = batch.add(contract, (c: Echo) => c.echo(BigInteger.ONE))
+    val second = batch.add(contract, (c: Echo) => c.echo(BigInteger.TEN))
+
+    batch.execute()
+    failure(first) shouldBe an[EthereumApiException]
+    failure(second).getMessage shouldEqual "the backend returned 1 results for 2 calls"
+  }
+
+  it should "fail every future if the backend throws" in {
+    val error = new EthereumApiException("backend down")
+    val backend = new StubBackend {
+      override def constantCalls(calls: ju.List[ConstantCall]): ju.List[EthData] = throw error
+    }
+    val (batch, contract) = newBatch(backend)
+    val first = batch.add(contract, (c: Echo) => c.echo(BigInteger.ONE))
+    val second = batch.add(contract, (c: Echo) => c.echo(BigInteger.TEN))
+
+    batch.execute()
+    failure(first) shouldBe theSameInstanceAs(error)
+    failure(second) shouldBe theSameInstanceAs(error)
+  }
+}
@@ -0,0 +1,134 @@
+package org.adridadou.ethereum.propeller
+
+import java.lang.reflect.Type
+import java.math.BigInteger
+
+import org.adridadou.ethereum.propeller.event.EthereumEventHandler
+import org.adridadou.ethereum.propeller.solidity.SolidityContractDetails
+import org.adridadou.ethereum.propeller.solidity.converters.SolidityTypeGroup
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.solidity.abi.AbiParam
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.{NumberDecoder, SolidityTypeDecoder, StringDecoder, UInt256Decoder, WordReader}
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.list.ArrayDecoder
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.{NumberEncoder, StringEncoder}
+import org.adridadou.ethereum.propeller.values.{EthAccount, EthAddress, EthData, EthValue}
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+class Celsius(val degrees: BigInteger, val fromDecoder: Boolean) {
+  def this(degrees: BigInteger) = this(degrees, false)
+}
+
+trait Overloaded {
+  def f(v: BigInteger): BigInteger
+
+  def f(v: String): String
+}
+
+trait Unmatched {
+  def g(v: java.lang.Boolean): BigInteger
+}
+
+trait Names {
+  def names(v: BigInteger): Array[String]
+}
+
+trait Thermometer {
+  def temperature(value: BigInteger): Celsius
+}
+
+class CelsiusDecoder extends SolidityTypeDecoder {
+  override def decode(index: Integer, data: EthData, resultType: Type): AnyRef = new Celsius(WordReader.readBigInteger(data, index), true)
+
+  override def canDecode(resultCls: Class[_]): Boolean = classOf[Celsius].equals(resultCls)
+}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class ContractProxyFactoryTest extends FlatSpec with Matchers with Checkers {
+  private val abi = "[{\"constant\":true,\"inputs\":[{\"name\":\"v\",\"type\":\"uint256\"}],\"name\":\"temperature\"," +
+    "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}],\"payable\":false,\"type\":\"function\"}]"
+  private val overloadedAbi = "[{\"constant\":true,\"inputs\":[{\"name\":\"v\",\"type\":\"uint256\"}],\"name\":\"f\"," +
+    "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}],\"payable\":false,\"type\":\"function\"}," +
+    "{\"constant\":true,\"inputs\":[{\"name\":\"v\",\"type\":\"string\"}],\"name\":\"f\"," +
+    "\"outputs\":[{\"name\":\"\",\"type\":\"string\"}],\"payable\":false,\"type\":\"function\"}]"
+  private val account = new EthAccount(BigInteger.ONE)
+  private val address = EthAddress.of("0x1234")
+
+  private def newProxy() = new EthereumProxy(new StubBackend, new EthereumEventHandler, EthereumConfig.builder().build())
+    .addEncoder(SolidityTypeGroup.Number, new NumberEncoder)
+    .addEncoder(SolidityTypeGroup.String, new StringEncoder)
+    .addDecoder(SolidityTypeGroup.Number, new NumberDecoder)
+    .addDecoder(SolidityTypeGroup.String, new StringDecoder)
+
+  "ContractProxyFactory" should "use a decoder registered after the first proxy of an interface" in {
+    val proxy = newProxy()
+    val factory = new ContractProxyFactory(proxy)
+    val details = new SolidityContractDetails(abi, null, null)
+
+    val early = factory.createProxy(classOf[Thermometer], details, address, account)
+    val before = early.temperature(BigInteger.TEN)
+    before.degrees shouldEqual BigInteger.TEN
+    before.fromDecoder shouldEqual false
+
+    proxy.addDecoder(SolidityTypeGroup.Number, new CelsiusDecoder)
+    val after = factory.createProxy(classOf[Thermometer], details, address, account).temperature(BigInteger.TEN)
+    after.degrees shouldEqual BigInteger.TEN
+    after.fromDecoder shouldEqual true
+    early.temperature(BigInteger.TEN).fromDecoder shouldEqual true
+  }
+
+  it should "dispatch overloaded methods to the function with matching parameters" in {
+    val factory = new ContractProxyFactory(newProxy())
+    val contract = factory.createProxy(classOf[Overloaded], new SolidityContractDetails(overloadedAbi, null, null), address, account)
+    contract.f(BigInteger.valueOf(42)) shouldEqual BigInteger.valueOf(42)
+    contract.f("hello") shouldEqual "hello"
+  }
+
+  it should "list the unmatched methods when the interface does not match the ABI" in {
+    val factory = new ContractProxyFactory(newProxy())
+    val error = the[EthereumApiException] thrownBy factory.createProxy(classOf[Unmatched], new SolidityContractDetails(abi, null, null), address, account)
+    error.getMessage should include("*** unmatched ***")
+    error.getMessage should include("- g(Boolean)")
+  }
+
+  it should "refuse an empty address" in {
+    val factory = new ContractProxyFactory(newProxy())
+    an[EthereumApiException] should be thrownBy factory.createProxy(classOf[Thermometer], new SolidityContractDetails(abi, null, null), EthAddress.empty(), account)
+  }
+
+  it should "refuse an array of strings as result type but keep the other functions usable" in {
+    val namesAbi = "[{\"constant\":true,\"inputs\":[{\"name\":\"v\",\"type\":\"uint256\"}],\"name\":\"names\"," +
+      "\"outputs\":[{\"name\":\"\",\"type\":\"string[]\"}],\"payable\":false,\"type\":\"function\"}]"
+    val factory = new ContractProxyFactory(newProxy().addListDecoder(classOf[ArrayDecoder]))
+    val error = the[EthereumApiException] thrownBy factory.createProxy(classOf[Names], new SolidityContractDetails(namesAbi, null, null), address, account)
+    error.getMessage should include("string[]")
+
+    val contract = new SolidityContractDetails(abi.dropRight(1) + "," + namesAbi.drop(1), null, null)
+    factory.createProxy(classOf[Thermometer], contract, address, account).temperature(BigInteger.TEN).degrees shouldEqual BigInteger.TEN
+  }
+
+  "SmartContract" should "build its functions again after a codec is registered" in {
+    val proxy = newProxy()
+    val contract = proxy.getSmartContract(new SolidityContractDetails(abi, null, null), address, account)
+    val functions = contract.getFunctions
+    contract.getFunctions should be theSameInstanceAs functions
+    val method = classOf[Thermometer].getMethod("temperature", classOf[BigInteger])
+    val function = contract.getFunction(method).get
+
+    proxy.addDecoder(SolidityTypeGroup.Number, new CelsiusDecoder)
+    contract.getFunctions should not be theSameInstanceAs(functions)
+    contract.getFunction(method).get should not be theSameInstanceAs(function)
+    contract.callConstFunction(method, EthValue.wei(0), BigInteger.ONE).asInstanceOf[Celsius].fromDecoder shouldEqual true
+  }
+
+  "EthereumProxy" should "not use the unsigned decoders for signed types" in {
+    val proxy = new EthereumProxy(new StubBackend, new EthereumEventHandler, EthereumConfig.builder().build())
+      .addDecoder(SolidityTypeGroup.Number, new UInt256Decoder)
+      .addDecoder(SolidityTypeGroup.Number, new NumberDecoder)
+    proxy.getDecoders(new AbiParam(false, "v", "int256")).get(0) shouldBe a[NumberDecoder]
+    proxy.getDecoders(new AbiParam(false, "v", "int24")).size shouldEqual 1
+    proxy.getDecoders(new AbiParam(false, "v", "uint256")).get(0) shouldBe an[UInt256Decoder]
+  }
+}
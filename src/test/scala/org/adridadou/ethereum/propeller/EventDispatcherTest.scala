@@ -0,0 +1,111 @@
+package org.adridadou.ethereum.propeller
+
+import java.math.BigInteger
+import java.{util => ju}
+
+import org.adridadou.ethereum.propeller.event.{EthereumEventHandler, TransactionInfo, TransactionReceipt, TransactionStatus}
+import org.adridadou.ethereum.propeller.solidity.SolidityEvent
+import org.adridadou.ethereum.propeller.solidity.abi.AbiEntry
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.{NumberDecoder, SolidityTypeDecoder}
+import org.adridadou.ethereum.propeller.values.{EthAddress, EthData, EthHash, EventInfo}
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class Deposit(val amount: BigInteger)
+
+/**
+  * This code is released under Apache 2 license
+  */
+class EventDispatcherTest extends FlatSpec with Matchers with Checkers {
+  private val depositAbi = "[{\"anonymous\":false,\"inputs\":[{\"indexed\":false,\"name\":\"amount\",\"type\":\"uint256\"}]," +
+    "\"name\":\"Deposit\",\"type\":\"event\"}]"
+  private val withdrawalAbi = depositAbi.replace("Deposit", "Withdrawal")
+  private val bank = EthAddress.of("0x1234")
+  private val other = EthAddress.of("0x5678")
+
+  private def event(abi: String): SolidityEvent[Deposit] = new SolidityEvent(AbiEntry.parse(abi).get(0),
+    ju.Collections.singletonList[ju.List[SolidityTypeDecoder]](ju.Collections.singletonList(new NumberDecoder)), classOf[Deposit])
+
+  private def log(topic: EthData, amount: Long) =
+    new EventInfo(topic, EthData.of(BigInteger.valueOf(amount)).word(0), ju.Collections.emptyList())
+
+  private def execute(eventHandler: EthereumEventHandler, to: EthAddress, logs: EventInfo*): Unit =
+    eventHandler.onTransactionExecuted(new TransactionInfo(new TransactionReceipt(EthHash.of("0x01"), EthAddress.of("0x01"), to,
+      EthAddress.empty(), "", EthData.empty(), true, ju.Arrays.asList(logs: _*)), TransactionStatus.Executed))
+
+  private def amounts(received: ju.List[Deposit]): List[Long] = received.asScala.map(_.amount.longValue).toList
+
+  "EventDispatcher" should "deliver each log matched by the long or the short topic once" in {
+    val eventHandler = new EthereumEventHandler
+    val dispatcher = new EventDispatcher(eventHandler)
+    val deposit = event(depositAbi)
+    val received = new ju.ArrayList[Deposit]()
+    dispatcher.observe(deposit, bank).forEach(e => received.add(e))
+
+    execute(eventHandler, bank, log(deposit.getTopic, 1), log(deposit.getShortTopic, 2))
+    amounts(received) shouldEqual List(1L, 2L)
+  }
+
+  it should "only deliver the events of the observed contract and signature" in {
+    val eventHandler = new EthereumEventHandler
+    val dispatcher = new EventDispatcher(eventHandler)
+    val deposit = event(depositAbi)
+    val withdrawal = event(withdrawalAbi)
+    val deposits = new ju.ArrayList[Deposit]()
+    val withdrawals = new ju.ArrayList[Deposit]()
+    dispatcher.observe(deposit, bank).forEach(e => deposits.add(e))
+    dispatcher.observe(withdrawal, bank).forEach(e => withdrawals.add(e))
+
+    execute(eventHandler, bank, log(deposit.getTopic, 1), log(withdrawal.getTopic, 2))
+    execute(eventHandler, other, log(deposit.getTopic, 3))
+    amounts(deposits) shouldEqual List(1L)
+    amounts(withdrawals) shouldEqual List(2L)
+  }
+
+  it should "apply the filter of the subscription before decoding" in {
+    val eventHandler = new EthereumEventHandler
+    val dispatcher = new EventDispatcher(eventHandler)
+    val deposit = event(depositAbi)
+    val received = new ju.ArrayList[Deposit]()
+    dispatcher.observe(deposit, bank, (info: EventInfo) => info.getEventSignature.equals(deposit.getShortTopic)).forEach(e => received.add(e))
+
+    execute(eventHandler, bank, log(deposit.getTopic, 1), log(deposit.getShortTopic, 2))
+    amounts(received) shouldEqual List(2L)
+  }
+
+  it should "stop delivering once unsubscribed" in {
+    val eventHandler = new EthereumEventHandler
+    val dispatcher = new EventDispatcher(eventHandler)
+    val deposit = event(depositAbi)
+    val kept = new ju.ArrayList[Deposit]()
+    val dropped = new ju.ArrayList[Deposit]()
+    dispatcher.observe(deposit, bank).forEach(e => kept.add(e))
+    val subscription = dispatcher.observe(deposit, bank).subscribe((e: Deposit) => { dropped.add(e); () })
+
+    execute(eventHandler, bank, log(deposit.getTopic, 1))
+    subscription.unsubscribe()
+    execute(eventHandler, bank, log(deposit.getShortTopic, 2))
+    amounts(kept) shouldEqual List(1L, 2L)
+    amounts(dropped) shouldEqual List(1L)
+  }
+
+  it should "keep delivering to the other subscribers when one of them fails" in {
+    val eventHandler = new EthereumEventHandler
+    val dispatcher = new EventDispatcher(eventHandler)
+    val deposit = event(depositAbi)
+    val received = new ju.ArrayList[Deposit]()
+    dispatcher.observe(deposit, bank).forEach(_ => throw new IllegalStateException("subscriber failure"))
+    dispatcher.observe(deposit, bank).forEach(e => received.add(e))
+
+    execute(eventHandler, bank, log(deposit.getTopic, 1))
+    execute(eventHandler, bank, log(deposit.getTopic, 2))
+    amounts(received) shouldEqual List(1L, 2L)
+
+    val late = new ju.ArrayList[Deposit]()
+    dispatcher.observe(deposit, bank).forEach(e => late.add(e))
+    execute(eventHandler, bank, log(deposit.getTopic, 3))
+    amounts(late) shouldEqual List(3L)
+  }
+}
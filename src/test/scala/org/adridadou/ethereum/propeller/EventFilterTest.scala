@@ -0,0 +1,79 @@
+package org.adridadou.ethereum.propeller
+
+import java.math.BigInteger
+import java.{util => ju}
+
+import org.adridadou.ethereum.propeller.event.EthereumEventHandler
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.solidity.SolidityEvent
+import org.adridadou.ethereum.propeller.solidity.abi.AbiEntry
+import org.adridadou.ethereum.propeller.solidity.converters.SolidityTypeGroup
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.{AddressEncoder, NumberEncoder, StringEncoder}
+import org.adridadou.ethereum.propeller.values.{EthAddress, EthBloom, EthData, EventInfo}
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+class Transfer(val from: EthAddress, val to: EthAddress, val value: BigInteger)
+
+/**
+  * This code is released under Apache 2 license
+  */
+class EventFilterTest extends FlatSpec with Matchers with Checkers {
+  private val transferAbi = "[{\"anonymous\":false,\"inputs\":[" +
+    "{\"indexed\":true,\"name\":\"from\",\"type\":\"address\"}," +
+    "{\"indexed\":true,\"name\":\"to\",\"type\":\"address\"}," +
+    "{\"indexed\":false,\"name\":\"value\",\"type\":\"uint256\"}," +
+    "{\"indexed\":true,\"name\":\"memo\",\"type\":\"string\"}]," +
+    "\"name\":\"Transfer\",\"type\":\"event\"}]"
+  private val alice = EthAddress.of("0xa11ce0")
+  private val bob = EthAddress.of("0x0b0b")
+  private val transfer = new SolidityEvent(AbiEntry.parse(transferAbi).get(0),
+    ju.Collections.emptyList[ju.List[SolidityTypeDecoder]](), classOf[Transfer])
+  private val proxy = new EthereumProxy(new StubBackend, new EthereumEventHandler, EthereumConfig.builder().build())
+    .addEncoder(SolidityTypeGroup.Address, new AddressEncoder)
+    .addEncoder(SolidityTypeGroup.Number, new NumberEncoder)
+    .addEncoder(SolidityTypeGroup.String, new StringEncoder)
+
+  private def word(address: EthAddress) = EthData.of(new BigInteger(1, address.address)).word(0)
+
+  private def log(from: EthAddress, to: EthAddress, signature: EthData = transfer.getTopic) =
+    new EventInfo(signature, EthData.of(BigInteger.ONE).word(0), ju.Arrays.asList(word(from), word(to), EthData.empty()))
+
+  "EventFilter" should "match the logs whose indexed parameters have the expected values" in {
+    val filter = new EventFilter(proxy, transfer).where("to", bob)
+    filter.matches(log(alice, bob)) shouldEqual true
+    filter.matches(log(alice, bob, transfer.getShortTopic)) shouldEqual true
+    filter.matches(log(bob, alice)) shouldEqual false
+    filter.matches(log(alice, bob, EthData.of("0x01020304"))) shouldEqual false
+
+    val both = filter.where("from", alice)
+    both.matches(log(alice, bob)) shouldEqual true
+    both.matches(log(bob, bob)) shouldEqual false
+  }
+
+  it should "leave the filter it is built from unchanged" in {
+    val filter = new EventFilter(proxy, transfer)
+    filter.where("to", bob)
+    filter.matches(log(bob, alice)) shouldEqual true
+  }
+
+  it should "encode the expected value as a topic word" in {
+    val filter = new EventFilter(proxy, transfer).where("to", bob)
+    filter.mightBeIn(EthBloom.empty().`with`(transfer.getTopic).`with`(word(bob))) shouldEqual true
+    filter.mightBeIn(EthBloom.empty().`with`(transfer.getTopic).`with`(word(alice))) shouldEqual false
+    filter.mightBeIn(EthBloom.empty().`with`(word(bob))) shouldEqual false
+  }
+
+  it should "reject a dynamic indexed parameter since only its hash is stored" in {
+    val error = the[EthereumApiException] thrownBy new EventFilter(proxy, transfer).where("memo", "hello")
+    error.getMessage should include("stored as a hash")
+  }
+
+  it should "reject non indexed, unknown and null parameters" in {
+    val filter = new EventFilter(proxy, transfer)
+    (the[EthereumApiException] thrownBy filter.where("value", BigInteger.ONE)).getMessage should include("not indexed")
+    (the[EthereumApiException] thrownBy filter.where("amount", BigInteger.ONE)).getMessage should include("no indexed parameter")
+    (the[EthereumApiException] thrownBy filter.where("to", null)).getMessage should include("null")
+  }
+}
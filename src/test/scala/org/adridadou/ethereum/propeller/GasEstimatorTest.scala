@@ -0,0 +1,97 @@
+package org.adridadou.ethereum.propeller
+
+import java.math.BigInteger
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.adridadou.ethereum.propeller.values.{EthAddress, EthData, GasUsage}
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class GasEstimatorTest extends FlatSpec with Matchers with Checkers {
+  private val defaultMargin = 5000
+  private val address = EthAddress.of("0x1234")
+  private val call = EthData.of("0xa9059cbb0000000000000000000000000000000000000000000000000000000000000001")
+
+  private def gas(value: Long) = new GasUsage(BigInteger.valueOf(value))
+
+  private class Estimation(value: Long) extends (() => GasUsage) {
+    val count = new AtomicInteger()
+
+    override def apply(): GasUsage = {
+      count.incrementAndGet()
+      gas(value)
+    }
+  }
+
+  private def limit(estimator: GasEstimator, to: EthAddress, estimation: Estimation, data: EthData = call): Long =
+    estimator.getGasLimit(to, data, () => estimation()).getUsage.longValue
+
+  "GasEstimator" should "add the default margin to an estimate that has not been observed" in {
+    val estimator = new GasEstimator(10, defaultMargin)
+    limit(estimator, address, new Estimation(21000)) shouldEqual 26000
+  }
+
+  it should "always keep at least the default margin" in {
+    val estimator = new GasEstimator(10, defaultMargin)
+    val estimation = new Estimation(21000)
+    limit(estimator, address, estimation)
+
+    estimator.observe(address, call, gas(30000))
+    limit(estimator, address, estimation) shouldEqual 35000
+
+    (0 until 10).foreach(_ => estimator.observe(address, call, gas(30000)))
+    limit(estimator, address, estimation) shouldEqual 35000
+    estimation.count.get shouldEqual 1
+  }
+
+  it should "use the spread of the observed gas as margin when it is above the default one" in {
+    val estimator = new GasEstimator(10, defaultMargin)
+    val estimation = new Estimation(21000)
+    limit(estimator, address, estimation)
+
+    Seq(30000L, 20000L, 25000L).foreach(used => estimator.observe(address, call, gas(used)))
+    limit(estimator, address, estimation) shouldEqual 40000
+  }
+
+  it should "call the estimation again after an invalidation" in {
+    val estimator = new GasEstimator(10, defaultMargin)
+    val estimation = new Estimation(21000)
+    limit(estimator, address, estimation)
+    limit(estimator, address, estimation)
+    estimation.count.get shouldEqual 1
+
+    estimator.invalidate(address, call)
+    limit(estimator, address, estimation)
+    estimation.count.get shouldEqual 2
+  }
+
+  it should "evict the least recently used estimate" in {
+    val estimator = new GasEstimator(2, defaultMargin)
+    val first = EthAddress.of("0x01")
+    val second = EthAddress.of("0x02")
+    val third = EthAddress.of("0x03")
+    val estimation = new Estimation(21000)
+
+    limit(estimator, first, estimation)
+    limit(estimator, second, estimation)
+    limit(estimator, first, estimation)
+    limit(estimator, third, estimation)
+    estimation.count.get shouldEqual 3
+
+    limit(estimator, first, estimation)
+    estimation.count.get shouldEqual 3
+    limit(estimator, second, estimation)
+    estimation.count.get shouldEqual 4
+  }
+
+  it should "never cache contract creations" in {
+    val estimator = new GasEstimator(10, defaultMargin)
+    val estimation = new Estimation(100000)
+    limit(estimator, EthAddress.empty(), estimation) shouldEqual 105000
+    limit(estimator, EthAddress.empty(), estimation) shouldEqual 105000
+    estimation.count.get shouldEqual 2
+  }
+}
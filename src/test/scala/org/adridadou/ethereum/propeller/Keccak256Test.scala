@@ -0,0 +1,52 @@
+package org.adridadou.ethereum.propeller
+
+import org.scalacheck.Arbitrary._
+import org.scalacheck.Prop._
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+import org.spongycastle.jcajce.provider.digest.Keccak
+
+import scala.collection.JavaConverters._
+
+/**
+  * This code is released under Apache 2 license
+  */
+class Keccak256Test extends FlatSpec with Matchers with Checkers {
+
+  "Keccak256" should "hash like the spongycastle implementation" in {
+    check(forAll(arbitrary[Array[Byte]])(input => {
+      Keccak256.hash(input) shouldEqual reference(input)
+      true
+    }))
+  }
+
+  it should "hash inputs crossing the block boundaries" in {
+    (0 to 300).foreach(length => {
+      val input = Array.tabulate[Byte](length)(_.toByte)
+      Keccak256.hash(input) shouldEqual reference(input)
+    })
+  }
+
+  it should "hash a slice of the input into a slice of the output" in {
+    check(forAll(arbitrary[Array[Byte]], arbitrary[Byte])((input, b) => {
+      val padded = Array(b) ++ input ++ Array(b)
+      val output = new Array[Byte](Keccak256.DIGEST_SIZE + 2)
+      Keccak256.hash(padded, 1, input.length, output, 1)
+      output.slice(1, Keccak256.DIGEST_SIZE + 1) shouldEqual reference(input)
+      true
+    }))
+  }
+
+  it should "hash a batch of inputs" in {
+    check(forAll(arbitrary[List[Array[Byte]]])(inputs => {
+      Keccak256.hashAll(inputs.asJava).asScala.toList.map(_.toList) shouldEqual inputs.map(reference(_).toList)
+      true
+    }))
+  }
+
+  private def reference(input: Array[Byte]): Array[Byte] = {
+    val digest = new Keccak.Digest256()
+    digest.update(input)
+    digest.digest()
+  }
+}
@@ -0,0 +1,169 @@
+package org.adridadou.ethereum.propeller
+
+import java.math.BigInteger
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.{Collections, function}
+import java.{util => ju}
+
+import org.adridadou.ethereum.propeller.event.TransactionReceipt
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.values._
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+/**
+  * This code is released under Apache 2 license
+  */
+class NonceManagerTest extends FlatSpec with Matchers with Checkers {
+  private val sender = EthAddress.of("0x1234")
+  private val directExecutor = new Executor {
+    override def execute(command: Runnable): Unit = command.run()
+  }
+
+  private class Network(var current: Long) {
+    val loads = new AtomicInteger()
+    val manager = new NonceManager(new function.Function[EthAddress, Nonce] {
+      override def apply(address: EthAddress): Nonce = {
+        loads.incrementAndGet()
+        nonce(current)
+      }
+    }, directExecutor)
+  }
+
+  private def nonce(value: Long) = new Nonce(BigInteger.valueOf(value))
+
+  private def hash(value: Int) = EthHash.of(BigInteger.valueOf(value + 1).toByteArray)
+
+  private def receipt(hash: EthHash) = new TransactionReceipt(hash, sender, EthAddress.of("0x99"), EthAddress.empty(), "", EthData.empty(), true,
+    Collections.emptyList(), new GasUsage(BigInteger.ONE))
+
+  private def allocate(network: Network) = network.manager.allocate(sender).getValue.longValue
+
+  "NonceManager" should "allocate increasing nonces starting from the backend nonce" in {
+    val network = new Network(3)
+    (0 until 3).map(_ => allocate(network)) shouldEqual Seq(3L, 4L, 5L)
+    network.manager.getNonce(sender).getValue shouldEqual BigInteger.valueOf(6)
+    network.loads.get shouldEqual 1
+  }
+
+  it should "reuse the nonce of a submission that failed for another reason than its nonce" in {
+    val network = new Network(0)
+    allocate(network) shouldEqual 0
+    allocate(network) shouldEqual 1
+    network.manager.rejected(sender, nonce(1), new EthereumApiException("not enough balance"))
+    allocate(network) shouldEqual 1
+    network.loads.get shouldEqual 1
+  }
+
+  it should "reload the account when the backend rejects the nonce" in {
+    val network = new Network(0)
+    allocate(network) shouldEqual 0
+    network.current = 7
+    network.manager.rejected(sender, nonce(0), new EthereumApiException("error", new RuntimeException("nonce too low")))
+    allocate(network) shouldEqual 7
+  }
+
+  it should "reuse the nonce of a dropped transaction" in {
+    val network = new Network(0)
+    (0 until 3).foreach(i => network.manager.submitted(sender, network.manager.allocate(sender), hash(i)))
+    network.manager.dropped(hash(1))
+    allocate(network) shouldEqual 1
+    allocate(network) shouldEqual 3
+  }
+
+  it should "align on included transactions and reload each sender once per block" in {
+    val network = new Network(0)
+    (0 until 3).foreach(i => network.manager.submitted(sender, network.manager.allocate(sender), hash(i)))
+    network.current = 2
+    network.manager.included(List(receipt(hash(0)), receipt(hash(1))).asJava)
+    network.loads.get shouldEqual 2
+    allocate(network) shouldEqual 3
+
+    network.manager.included(Collections.emptyList())
+    network.loads.get shouldEqual 2
+  }
+
+  it should "follow transactions sent from the same key by someone else" in {
+    val network = new Network(0)
+    network.manager.submitted(sender, network.manager.allocate(sender), hash(0))
+    network.current = 10
+    network.manager.included(List(receipt(hash(0))).asJava)
+    allocate(network) shouldEqual 10
+  }
+
+  it should "reload a dropped sender with the next block" in {
+    val network = new Network(0)
+    network.manager.submitted(sender, network.manager.allocate(sender), hash(0))
+    network.manager.dropped(hash(0))
+    network.current = 4
+    network.manager.included(Collections.emptyList())
+    allocate(network) shouldEqual 4
+  }
+
+  it should "keep the nonce of a transaction whose receipt never arrived until it is dropped" in {
+    val network = new Network(0)
+    (0 until 3).foreach(i => network.manager.submitted(sender, network.manager.allocate(sender), hash(i)))
+    network.manager.expired(hash(0))
+    network.manager.included(Collections.emptyList())
+    allocate(network) shouldEqual 3
+
+    network.manager.dropped(hash(0))
+    allocate(network) shouldEqual 0
+  }
+
+  it should "stop reserving the nonce of an expired transaction once the network nonce moves past it" in {
+    val network = new Network(0)
+    (0 until 2).foreach(i => network.manager.submitted(sender, network.manager.allocate(sender), hash(i)))
+    network.manager.expired(hash(0))
+    network.current = 1
+    network.manager.included(Collections.emptyList())
+    network.manager.dropped(hash(0))
+    allocate(network) shouldEqual 2
+  }
+
+  it should "not reuse the nonces of included transactions when the backend lags behind" in {
+    val network = new Network(0)
+    (0 until 3).foreach(i => network.manager.submitted(sender, network.manager.allocate(sender), hash(i)))
+    network.manager.included(List(receipt(hash(0)), receipt(hash(1))).asJava)
+    network.loads.get shouldEqual 2
+    allocate(network) shouldEqual 3
+  }
+
+  it should "read the first nonce of a preloaded account in the background" in {
+    val tasks = new ju.concurrent.ConcurrentLinkedQueue[Runnable]()
+    val loads = new AtomicInteger()
+    val manager = new NonceManager(new function.Function[EthAddress, Nonce] {
+      override def apply(address: EthAddress): Nonce = {
+        loads.incrementAndGet()
+        nonce(5)
+      }
+    }, new Executor {
+      override def execute(command: Runnable): Unit = tasks.add(command)
+    })
+    manager.preload(sender)
+    manager.preload(sender)
+    loads.get shouldEqual 0
+    tasks.size shouldEqual 1
+
+    tasks.poll().run()
+    loads.get shouldEqual 1
+    manager.allocate(sender).getValue.longValue shouldEqual 5
+    loads.get shouldEqual 1
+  }
+
+  it should "give distinct nonces to concurrent submissions" in {
+    val network = new Network(0)
+    val pool = ju.concurrent.Executors.newFixedThreadPool(8)
+    try {
+      val futures = (0 until 8).map(_ => pool.submit(new ju.concurrent.Callable[Seq[Long]] {
+        override def call(): Seq[Long] = (0 until 250).map(_ => allocate(network))
+      }))
+      futures.flatMap(_.get).sorted shouldEqual (0L until 2000L)
+    } finally {
+      pool.shutdown()
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package org.adridadou.ethereum.propeller
+
+import java.math.BigInteger
+import java.util.concurrent.ExecutionException
+import java.{util => ju}
+
+import org.adridadou.ethereum.propeller.event._
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.values._
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class ReceiptDispatcherTest extends FlatSpec with Matchers with Checkers {
+  private val hash = EthHash.of("0x01")
+
+  private class Fixture(blockWaitLimit: Long) {
+    val eventHandler = new EthereumEventHandler
+    val expired = new ju.ArrayList[EthHash]()
+    val receipts = new ju.ArrayList[TransactionReceipt]()
+    val dispatcher = new ReceiptDispatcher(eventHandler, blockWaitLimit, (hash: EthHash) => expired.add(hash))
+
+    def watch(currentBlock: Long): ju.concurrent.CompletableFuture[TransactionReceipt] =
+      dispatcher.watch(hash, currentBlock, (receipt: TransactionReceipt) => receipts.add(receipt))
+
+    def block(number: Long, receipts: TransactionReceipt*): Unit = eventHandler.onBlock(new BlockInfo(number, ju.Arrays.asList(receipts: _*)))
+  }
+
+  private def receipt(txHash: EthHash, successful: Boolean) = new TransactionReceipt(txHash, EthAddress.of("0x01"), EthAddress.of("0x02"),
+    EthAddress.empty(), if (successful) "" else "out of gas", EthData.empty(), successful, ju.Collections.emptyList(), new GasUsage(BigInteger.valueOf(21000)))
+
+  private def failure(future: ju.concurrent.CompletableFuture[TransactionReceipt]): Throwable = {
+    future.isCompletedExceptionally shouldEqual true
+    intercept[ExecutionException](future.get()).getCause
+  }
+
+  "ReceiptDispatcher" should "complete the future with the receipt of the transaction" in {
+    val fixture = new Fixture(3)
+    val result = fixture.watch(10)
+    fixture.block(11, receipt(EthHash.of("0x02"), successful = true))
+    result.isDone shouldEqual false
+
+    val included = receipt(hash, successful = true)
+    fixture.block(12, included)
+    result.get should be theSameInstanceAs included
+    fixture.receipts should contain only included
+  }
+
+  it should "fail the future with the error of a failed receipt and still pass the receipt to the listener" in {
+    val fixture = new Fixture(3)
+    val result = fixture.watch(10)
+    fixture.block(11, receipt(hash, successful = false))
+
+    failure(result).getMessage should include("out of gas")
+    fixture.receipts.size shouldEqual 1
+    fixture.expired.isEmpty shouldEqual true
+  }
+
+  it should "time out once the transaction has not been included in the next blockWaitLimit blocks" in {
+    val fixture = new Fixture(3)
+    val result = fixture.watch(10)
+    fixture.block(11)
+    fixture.block(13)
+    result.isDone shouldEqual false
+
+    fixture.block(14)
+    failure(result) shouldBe an[EthereumApiException]
+    fixture.expired should contain only hash
+    fixture.receipts.isEmpty shouldEqual true
+
+    fixture.block(15, receipt(hash, successful = true))
+    fixture.receipts.isEmpty shouldEqual true
+  }
+
+  it should "time out when blocks are skipped" in {
+    val fixture = new Fixture(3)
+    val result = fixture.watch(10)
+    fixture.block(20)
+    failure(result) shouldBe an[EthereumApiException]
+  }
+
+  it should "fail the future of a dropped transaction without calling the listeners" in {
+    val fixture = new Fixture(3)
+    val result = fixture.watch(10)
+    fixture.eventHandler.onTransactionDropped(new TransactionInfo(receipt(hash, successful = false), TransactionStatus.Dropped))
+
+    failure(result).getMessage should include("dropped")
+    fixture.receipts.isEmpty shouldEqual true
+    fixture.expired.isEmpty shouldEqual true
+  }
+
+  it should "complete the future before calling the listener and keep dispatching when a listener fails" in {
+    val fixture = new Fixture(3)
+    val other = EthHash.of("0x02")
+    val first = fixture.dispatcher.watch(hash, 10, (_: TransactionReceipt) => throw new IllegalStateException("listener failure"))
+    val second = fixture.dispatcher.watch(other, 10, (receipt: TransactionReceipt) => fixture.receipts.add(receipt))
+
+    fixture.block(11, receipt(hash, successful = true), receipt(other, successful = true))
+    first.isDone shouldEqual true
+    first.isCompletedExceptionally shouldEqual false
+    second.isDone shouldEqual true
+    fixture.receipts.size shouldEqual 1
+
+    val third = fixture.watch(11)
+    fixture.block(12, receipt(hash, successful = true))
+    third.isDone shouldEqual true
+  }
+}
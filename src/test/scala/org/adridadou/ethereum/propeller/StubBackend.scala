@@ -0,0 +1,62 @@
+package org.adridadou.ethereum.propeller
+
+import java.math.BigInteger
+import java.{util => ju}
+import java.util.Collections
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.adridadou.ethereum.propeller.event._
+import org.adridadou.ethereum.propeller.values._
+
+/**
+  * An in-memory backend for the tests that do not need a blockchain.
+  * Constant calls answer with the call data without its selector, which is the ABI encoding of the arguments
+  * and therefore the encoding of the same values as a result.
+  * This code is released under Apache 2 license
+  */
+class StubBackend extends EthereumBackend {
+  val constantCallCount = new AtomicInteger()
+  val calledData: ju.List[EthData] = Collections.synchronizedList(new ju.ArrayList[EthData]())
+  var handler: EthereumEventHandler = _
+  var currentBlock = 0L
+  var networkNonce = 0L
+
+  def answer(data: EthData): EthData = EthData.of(ju.Arrays.copyOfRange(data.data, 4, data.length))
+
+  override def getGasPrice: GasPrice = new GasPrice(BigInteger.ONE)
+
+  override def getBalance(address: EthAddress): EthValue = EthValue.wei(0)
+
+  override def addressExists(address: EthAddress): Boolean = true
+
+  override def submit(account: EthAccount, address: EthAddress, value: EthValue, data: EthData, nonce: Nonce, gasLimit: GasUsage): EthHash =
+    EthHash.of(BigInteger.valueOf(nonce.getValue.longValue + 1).toByteArray)
+
+  override def estimateGas(account: EthAccount, address: EthAddress, value: EthValue, data: EthData): GasUsage = new GasUsage(BigInteger.valueOf(21000))
+
+  override def getNonce(currentAddress: EthAddress): Nonce = new Nonce(BigInteger.valueOf(networkNonce))
+
+  override def getCurrentBlockNumber: Long = currentBlock
+
+  override def getBlock(blockNumber: Long): BlockInfo = new BlockInfo(blockNumber, Collections.emptyList())
+
+  override def getBlock(blockHash: EthHash): BlockInfo = new BlockInfo(currentBlock, Collections.emptyList())
+
+  override def getCode(address: EthAddress): SmartContractByteCode = SmartContractByteCode.of(new Array[Byte](0))
+
+  override def constantCall(account: EthAccount, address: EthAddress, value: EthValue, data: EthData): EthData = {
+    constantCallCount.incrementAndGet()
+    calledData.add(data)
+    answer(data)
+  }
+
+  override def register(eventHandler: EthereumEventHandler): Unit = {
+    handler = eventHandler
+    eventHandler.onReady()
+  }
+
+  def mine(receipts: TransactionReceipt*): Unit = {
+    currentBlock += 1
+    handler.onBlock(new BlockInfo(currentBlock, ju.Arrays.asList(receipts: _*)))
+  }
+}
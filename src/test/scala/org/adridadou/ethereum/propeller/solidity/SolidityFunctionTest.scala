@@ -0,0 +1,70 @@
+package org.adridadou.ethereum.propeller.solidity
+
+import java.math.BigInteger
+import java.nio.ByteBuffer
+import java.{util => ju}
+
+import org.adridadou.ethereum.propeller.solidity.abi.AbiEntry
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.SolidityTypeDecoder
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.solidity.converters.encoders.{EthDataEncoder, NumberEncoder, SolidityTypeEncoder, StringEncoder}
+import org.adridadou.ethereum.propeller.values.EthData
+import org.scalatest.{FlatSpec, Matchers}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class SolidityFunctionTest extends FlatSpec with Matchers {
+  private val abi = "[{\"constant\":false,\"inputs\":[{\"name\":\"a\",\"type\":\"bytes\"},{\"name\":\"b\",\"type\":\"string\"}]," +
+    "\"name\":\"f\",\"outputs\":[],\"payable\":false,\"type\":\"function\"}]"
+
+  private def encoders(encoder: SolidityTypeEncoder): ju.List[SolidityTypeEncoder] = ju.Collections.singletonList(encoder)
+
+  "A solidity function" should "pad bytes so that the following dynamic arguments stay aligned" in {
+    val entry = AbiEntry.parse(abi).get(0)
+    val function = new SolidityFunction(entry, ju.Arrays.asList(encoders(new EthDataEncoder), encoders(new StringEncoder)),
+      ju.Collections.emptyList[ju.List[SolidityTypeDecoder]]())
+
+    val encoded = function.encode(EthData.of("0x0102"), "abc")
+    encoded shouldEqual entry.signature().merge(EthData.of("0x" +
+      "0000000000000000000000000000000000000000000000000000000000000040" +
+      "0000000000000000000000000000000000000000000000000000000000000080" +
+      "0000000000000000000000000000000000000000000000000000000000000002" +
+      "0102000000000000000000000000000000000000000000000000000000000000" +
+      "0000000000000000000000000000000000000000000000000000000000000003" +
+      "6162630000000000000000000000000000000000000000000000000000000000"))
+  }
+
+  it should "encode bytes the same way in one value" in {
+    new EthDataEncoder().encode(EthData.of("0x0102"), SolidityType.BYTES) shouldEqual EthData.of("0x" +
+      "0000000000000000000000000000000000000000000000000000000000000002" +
+      "0102000000000000000000000000000000000000000000000000000000000000")
+    new EthDataEncoder().encodedSize(EthData.empty(), SolidityType.BYTES) shouldEqual 32
+  }
+
+  it should "encode empty bytes and strings as their length word only" in {
+    val entry = AbiEntry.parse(abi).get(0)
+    val function = new SolidityFunction(entry, ju.Arrays.asList(encoders(new EthDataEncoder), encoders(new StringEncoder)),
+      ju.Collections.emptyList[ju.List[SolidityTypeDecoder]]())
+
+    function.encode(EthData.empty(), "") shouldEqual entry.signature().merge(EthData.of("0x" +
+      "0000000000000000000000000000000000000000000000000000000000000040" +
+      "0000000000000000000000000000000000000000000000000000000000000060" +
+      "0000000000000000000000000000000000000000000000000000000000000000" +
+      "0000000000000000000000000000000000000000000000000000000000000000"))
+    new StringEncoder().encode("", SolidityType.STRING) shouldEqual EthData.of(new Array[Byte](32))
+  }
+
+  "A number encoder" should "reject the values that do not fit in the type" in {
+    val max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE)
+    val encoder = new NumberEncoder
+    encoder.encodedSize(max, SolidityType.UINT256) shouldEqual 32
+    encoder.encode(max, SolidityType.UINT256, ByteBuffer.allocate(32))
+    encoder.encode(BigInteger.ONE.shiftLeft(255).negate(), SolidityType.INT256, ByteBuffer.allocate(32))
+
+    an[EthereumApiException] should be thrownBy encoder.encode(max.add(BigInteger.ONE), SolidityType.UINT256, ByteBuffer.allocate(32))
+    an[EthereumApiException] should be thrownBy encoder.encode(BigInteger.ONE.shiftLeft(255), SolidityType.INT256)
+    an[EthereumApiException] should be thrownBy NumberEncoder.writeWord(max.add(BigInteger.ONE), ByteBuffer.allocate(32))
+    an[EthereumApiException] should be thrownBy NumberEncoder.writeWord(BigInteger.ONE.shiftLeft(255).negate().subtract(BigInteger.ONE), ByteBuffer.allocate(32))
+  }
+}
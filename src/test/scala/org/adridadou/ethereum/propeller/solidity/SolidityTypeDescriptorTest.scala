@@ -0,0 +1,61 @@
+package org.adridadou.ethereum.propeller.solidity
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.scalatest.{FlatSpec, Matchers}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class SolidityTypeDescriptorTest extends FlatSpec with Matchers {
+
+  "A solidity type descriptor" should "parse integers of any width" in {
+    val uint24 = SolidityTypeDescriptor.of("uint24")
+    uint24.getBaseType shouldEqual "uint"
+    uint24.getBits shouldEqual 24
+    uint24.getSolidityType.get shouldEqual SolidityType.UINT
+    SolidityTypeDescriptor.of("uint256").getSolidityType.get shouldEqual SolidityType.UINT256
+    uint24.isDynamic shouldEqual false
+    uint24.getStaticSize shouldEqual 32
+
+    SolidityTypeDescriptor.of("int").getBits shouldEqual 256
+    SolidityTypeDescriptor.of("uint").getSolidityType.get shouldEqual SolidityType.UINT
+    SolidityTypeDescriptor.of("UINT256").getSolidityType.get shouldEqual SolidityType.UINT256
+    SolidityTypeDescriptor.of("int64").getSolidityType.get shouldEqual SolidityType.INT64
+  }
+
+  it should "parse fixed and dynamic byte arrays" in {
+    val bytes4 = SolidityTypeDescriptor.of("bytes4")
+    bytes4.getBits shouldEqual 32
+    bytes4.getSolidityType.get shouldEqual SolidityType.BYTES32
+    bytes4.isDynamic shouldEqual false
+
+    SolidityTypeDescriptor.of("bytes").isDynamic shouldEqual true
+    SolidityTypeDescriptor.of("bytes").getSolidityType.get shouldEqual SolidityType.BYTES
+    SolidityTypeDescriptor.of("string").isDynamic shouldEqual true
+  }
+
+  it should "parse nested arrays" in {
+    val nested = SolidityTypeDescriptor.of("uint8[2][]")
+    nested.getDimensionCount shouldEqual 2
+    nested.getDimension(0) shouldEqual 2
+    nested.getDimension(1) shouldEqual SolidityTypeDescriptor.DYNAMIC
+    nested.isDynamic shouldEqual true
+    nested.getArraySize shouldEqual null
+    nested.getElementType shouldEqual SolidityTypeDescriptor.of("uint8[2]")
+
+    val fixed = SolidityTypeDescriptor.of("address[3][2]")
+    fixed.isDynamic shouldEqual false
+    fixed.getArraySize shouldEqual 2
+    fixed.getStaticSize shouldEqual 6 * 32
+    SolidityTypeDescriptor.of("string[2]").isDynamic shouldEqual true
+  }
+
+  it should "keep unsupported types without a codec type" in {
+    SolidityTypeDescriptor.of("function").getSolidityType.isPresent shouldEqual false
+  }
+
+  it should "reject malformed arrays" in {
+    an[EthereumApiException] should be thrownBy SolidityTypeDescriptor.of("uint[a]")
+    an[EthereumApiException] should be thrownBy SolidityTypeDescriptor.of("uint[2")
+  }
+}
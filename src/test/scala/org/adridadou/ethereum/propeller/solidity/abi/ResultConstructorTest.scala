@@ -0,0 +1,58 @@
+package org.adridadou.ethereum.propeller.solidity.abi
+
+import java.math.BigInteger
+import java.{util => ju}
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.solidity.converters.decoders.{NumberDecoder, SolidityTypeDecoder, StringDecoder}
+import org.scalatest.{FlatSpec, Matchers}
+
+class Pair(val number: BigInteger, val name: String)
+
+class Failing(val number: BigInteger) {
+  throw new IllegalStateException("constructor failed")
+}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class ResultConstructorTest extends FlatSpec with Matchers {
+  private def decoders(decoder: SolidityTypeDecoder*): ju.List[SolidityTypeDecoder] = ju.Arrays.asList(decoder: _*)
+
+  private val pairDecoders = ju.Arrays.asList(decoders(new NumberDecoder), decoders(new StringDecoder))
+  private val numberDecoders = ju.Collections.singletonList(decoders(new NumberDecoder))
+
+  "ResultConstructor" should "resolve the decoder of each argument and build the object through a method handle" in {
+    val constructor = new ResultConstructor(pairDecoders, classOf[Pair], classOf[Pair].getConstructor(classOf[BigInteger], classOf[String]))
+    constructor.size shouldEqual 2
+    constructor.getDecoder(0) shouldBe a[NumberDecoder]
+    constructor.getDecoder(1) shouldBe a[StringDecoder]
+    constructor.isFor(pairDecoders) shouldEqual true
+    constructor.isFor(ju.Arrays.asList(decoders(new NumberDecoder), decoders(new StringDecoder))) shouldEqual false
+
+    val pair = constructor.newInstance(Array[AnyRef](BigInteger.TEN, "ten")).asInstanceOf[Pair]
+    pair.number shouldEqual BigInteger.TEN
+    pair.name shouldEqual "ten"
+  }
+
+  it should "wrap the exception thrown by the constructor" in {
+    val constructor = new ResultConstructor(numberDecoders, classOf[Failing], classOf[Failing].getConstructor(classOf[BigInteger]))
+    val error = the[EthereumApiException] thrownBy constructor.newInstance(Array[AnyRef](BigInteger.ONE))
+    error.getMessage should include(classOf[Failing].getTypeName)
+    error.getCause shouldBe an[IllegalStateException]
+  }
+
+  it should "fall back to the reflective call when no method handle can be created for the constructor" in {
+    //a public constructor of a package private class of the JDK cannot be looked up
+    val hiddenCls = Class.forName("java.util.PropertyPermissionCollection")
+    val hidden = new ResultConstructor(ju.Collections.emptyList(), hiddenCls, hiddenCls.getConstructor())
+    val error = the[EthereumApiException] thrownBy hidden.newInstance(new Array[AnyRef](0))
+    error.getMessage should include("java.util.PropertyPermissionCollection")
+    error.getCause shouldBe an[IllegalAccessException]
+
+    val accessible = hiddenCls.getConstructor()
+    accessible.setAccessible(true)
+    val opened = new ResultConstructor(ju.Collections.emptyList(), hiddenCls, accessible)
+    opened.newInstance(new Array[AnyRef](0)).getClass shouldEqual hiddenCls
+  }
+}
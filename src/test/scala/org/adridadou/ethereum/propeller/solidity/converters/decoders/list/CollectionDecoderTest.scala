@@ -0,0 +1,86 @@
+package org.adridadou.ethereum.propeller.solidity.converters.decoders.list
+
+import java.math.BigInteger
+import java.util
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.solidity.converters.decoders._
+import org.adridadou.ethereum.propeller.values.{EthAddress, EthData}
+import org.scalacheck.Arbitrary._
+import org.scalacheck.Prop._
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+trait ArrayResults {
+  def list(): util.List[java.lang.Long]
+
+  def iterator(): util.Iterator[java.lang.Long]
+
+  def stream(): util.stream.Stream[java.lang.Long]
+}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class CollectionDecoderTest extends FlatSpec with Matchers with Checkers {
+  private val numberDecoders: util.List[SolidityTypeDecoder] = util.Arrays.asList(new LongDecoder, new IntegerDecoder, new NumberDecoder)
+  private val addressDecoders: util.List[SolidityTypeDecoder] = util.Arrays.asList(new AddressDecoder)
+
+  private def word(value: BigInteger): Array[Byte] = {
+    val bytes = value.toByteArray
+    Array.fill[Byte](32 - bytes.length)(if (value.signum < 0) -1 else 0) ++ bytes
+  }
+
+  private def dynamicArray(elements: Seq[Array[Byte]]): EthData =
+    EthData.of((Seq(word(BigInteger.valueOf(32)), word(BigInteger.valueOf(elements.size))) ++ elements).flatten.toArray)
+
+  private def numbers(values: Seq[Long]): EthData = dynamicArray(values.map(value => word(BigInteger.valueOf(value))))
+
+  private def resultType(name: String) = classOf[ArrayResults].getMethod(name).getGenericReturnType
+
+  "ArrayDecoder" should "decode a dynamic uint array into long[] and int[]" in {
+    check(forAll(arbitrary[List[Int]])(values => {
+      val data = numbers(values.map(_.toLong))
+      new ArrayDecoder(numberDecoders, null).decode(0, data, classOf[Array[Long]]) shouldEqual values.map(_.toLong).toArray
+      new ArrayDecoder(numberDecoders, null).decode(0, data, classOf[Array[Int]]) shouldEqual values.toArray
+      true
+    }))
+  }
+
+  it should "decode a dynamic address array" in {
+    val addresses = Seq(EthAddress.of("0x0000000000000000000000000000000000000001"), EthAddress.of("0xabcdef0000000000000000000000000000000099"))
+    val data = dynamicArray(addresses.map(address => word(new BigInteger(1, address.address))))
+    new ArrayDecoder(addressDecoders, null).decode(0, data, classOf[Array[EthAddress]]) shouldEqual addresses.toArray
+  }
+
+  it should "still decode fixed size arrays in place" in {
+    val data = numbers(Seq(7L, 8L, 9L))
+    new ArrayDecoder(numberDecoders, 2).decode(1, data, classOf[Array[Long]]) shouldEqual Array(3L, 7L)
+  }
+
+  it should "reject a length that does not fit in the data" in {
+    val data = EthData.of(word(BigInteger.valueOf(32)) ++ word(BigInteger.valueOf(1000)))
+    an[EthereumApiException] should be thrownBy new ArrayDecoder(numberDecoders, null).decode(0, data, classOf[Array[Long]])
+  }
+
+  "ListDecoder, IteratorDecoder and StreamDecoder" should "decode a dynamic array" in {
+    val data = numbers(Seq(1L, 2L, 3L))
+    val expected = util.Arrays.asList[java.lang.Long](1L, 2L, 3L)
+    new ListDecoder(numberDecoders, null).decode(0, data, resultType("list")) shouldEqual expected
+    new IteratorDecoder(numberDecoders, null).decode(0, data, resultType("iterator"))
+      .asInstanceOf[util.Iterator[java.lang.Long]].asScala.toList.asJava shouldEqual expected
+    new StreamDecoder(numberDecoders, null).decode(0, data, resultType("stream"))
+      .asInstanceOf[util.stream.Stream[java.lang.Long]].iterator().asScala.toList.asJava shouldEqual expected
+  }
+
+  "WordReader" should "reject a dynamic bytes or string offset that is not a multiple of the word size" in {
+    val text = word(BigInteger.valueOf(3)) ++ "abc".getBytes("UTF-8") ++ new Array[Byte](29)
+    WordReader.readDynamicString(EthData.of(word(BigInteger.valueOf(32)) ++ text), 0) shouldEqual "abc"
+
+    val misaligned = EthData.of(word(BigInteger.valueOf(33)) ++ new Array[Byte](1) ++ text)
+    an[EthereumApiException] should be thrownBy WordReader.readDynamicString(misaligned, 0)
+    an[EthereumApiException] should be thrownBy WordReader.readDynamicBytes(misaligned, 0)
+  }
+}
@@ -0,0 +1,46 @@
+package org.adridadou.ethereum.propeller.util
+
+import org.adridadou.ethereum.propeller.exception.EthereumApiException
+import org.adridadou.ethereum.propeller.values.{EthAddress, EthHash}
+import org.scalacheck.Arbitrary._
+import org.scalacheck.Prop._
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+import org.spongycastle.util.encoders.Hex
+
+/**
+  * This code is released under Apache 2 license
+  */
+class HexCodecTest extends FlatSpec with Matchers with Checkers {
+
+  "HexCodec" should "encode and decode like spongycastle" in {
+    check(forAll(arbitrary[Array[Byte]])(data => {
+      val hex = Hex.toHexString(data)
+      HexCodec.encode(data) shouldEqual hex
+      HexCodec.decode(hex) shouldEqual data
+      HexCodec.decode(hex.toUpperCase) shouldEqual data
+      HexCodec.decode("0x" + hex, 2, hex.length + 2) shouldEqual data
+      HexCodec.encodeWithLeading0x(data) shouldEqual "0x" + hex
+      true
+    }))
+  }
+
+  it should "reject odd lengths and invalid digits" in {
+    an[EthereumApiException] should be thrownBy HexCodec.decode("123")
+    an[EthereumApiException] should be thrownBy HexCodec.decode("zz")
+  }
+
+  "EthAddress and EthHash" should "keep their value semantics" in {
+    check(forAll(arbitrary[Array[Byte]])(data => {
+      val bytes = data.take(20)
+      val address = EthAddress.of(bytes)
+      EthAddress.of(address.withLeading0x) shouldEqual address
+      EthAddress.of(Array[Byte](0, 0) ++ bytes) shouldEqual address
+      EthAddress.of(address.toString).hashCode shouldEqual address.hashCode
+      address.toString shouldEqual Hex.toHexString(bytes.dropWhile(_ == 0))
+      EthHash.of(EthHash.of(data).withLeading0x) shouldEqual EthHash.of(data.clone())
+      (EthHash.of(data) == EthHash.of(data :+ 1.toByte)) shouldEqual false
+      true
+    }))
+  }
+}
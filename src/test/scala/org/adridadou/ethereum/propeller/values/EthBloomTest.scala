@@ -0,0 +1,93 @@
+package org.adridadou.ethereum.propeller.values
+
+import java.math.BigInteger
+import java.util.Collections
+
+import org.adridadou.ethereum.propeller.event.{BlockInfo, TransactionReceipt}
+import org.scalacheck.Arbitrary._
+import org.scalacheck.Prop._
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+import org.spongycastle.crypto.digests.KeccakDigest
+
+import scala.collection.JavaConverters._
+
+/**
+  * This code is released under Apache 2 license
+  */
+class EthBloomTest extends FlatSpec with Matchers with Checkers {
+
+  /**
+    * The bloom as defined in the yellow paper: the bloom is a 2048 bits big endian number, each value sets the bits given
+    * by the low 11 bits of the first three pairs of bytes of its keccak hash
+    */
+  private def referenceBloom(values: Seq[Array[Byte]]): EthBloom = {
+    val bloom = values.foldLeft(BigInteger.ZERO)((bits, value) => {
+      val digest = new KeccakDigest(256)
+      val hash = new Array[Byte](32)
+      digest.update(value, 0, value.length)
+      digest.doFinal(hash, 0)
+      (0 until 3).foldLeft(bits)((result, i) => result.setBit(((hash(2 * i) & 0x07) << 8) | (hash(2 * i + 1) & 0xFF)))
+    })
+    val bytes = bloom.toByteArray.takeRight(EthBloom.SIZE)
+    EthBloom.of(new Array[Byte](EthBloom.SIZE - bytes.length) ++ bytes)
+  }
+
+  "EthBloom" should "set bits 1490, 1537 and 1783 for the empty value, whose keccak hash starts with c5d2 4601 86f7" in {
+    val expected = new Array[Byte](EthBloom.SIZE)
+    expected(69) = 0x04
+    expected(63) = 0x02
+    expected(33) = 0x80.toByte
+    EthBloom.empty().`with`(EthData.empty()) shouldEqual EthBloom.of(expected)
+  }
+
+  it should "match the yellow paper definition for an address and its topics" in {
+    check(forAll(arbitrary[Array[Byte]], arbitrary[List[Long]])((address, topics) => {
+      val emitter = EthAddress.of(address.take(20))
+      val paddedAddress = new Array[Byte](20 - emitter.address.length) ++ emitter.address
+      val topicData = topics.map(topic => EthData.of(BigInteger.valueOf(topic)).word(0))
+      val event = new EventInfo(EthData.of(Array.fill[Byte](32)(1)), EthData.empty(), topicData.asJava)
+      val expected = referenceBloom(paddedAddress +: event.getEventSignature.data +: topicData.map(_.data))
+
+      EthBloom.of(emitter, List(event).asJava) shouldEqual expected
+      topicData.foldLeft(EthBloom.empty().`with`(emitter).`with`(event.getEventSignature))(_ `with` _) shouldEqual expected
+      true
+    }))
+  }
+
+  it should "contain the values added to it and its subsets" in {
+    val address = EthAddress.of("0x1234")
+    val topic = EthData.of(BigInteger.valueOf(42)).word(0)
+    val bloom = EthBloom.empty().`with`(address).`with`(topic)
+    bloom.contains(EthBloom.empty().`with`(address)) shouldEqual true
+    bloom.contains(EthBloom.empty().`with`(topic)) shouldEqual true
+    bloom.contains(EthBloom.empty().`with`(EthAddress.of("0x4321"))) shouldEqual false
+    EthBloom.empty().`with`(address).or(EthBloom.empty().`with`(topic)) shouldEqual bloom
+    EthBloom.of(bloom.toString) shouldEqual bloom
+    EthBloom.of(address, Collections.emptyList()).isEmpty shouldEqual true
+  }
+
+  it should "be computed from the emitter of each event when the backend does not report it" in {
+    val token = EthAddress.of("0x1234")
+    val called = EthAddress.of("0x5678")
+    val signature = EthData.of(Array.fill[Byte](32)(1))
+    val topic = EthData.of(BigInteger.TEN).word(0)
+    val events = List(new EventInfo(token, signature, EthData.empty(), Collections.singletonList(topic)),
+      new EventInfo(called, signature, EthData.empty(), Collections.emptyList[EthData]()))
+    val receipt = new TransactionReceipt(EthHash.of("0x01"), EthAddress.of("0x01"), token, EthAddress.empty(), "", EthData.empty(), true, events.asJava)
+
+    receipt.getBloom shouldEqual EthBloom.of(token, List(events.head).asJava).or(EthBloom.of(called, List(events(1)).asJava))
+    receipt.getBloom.contains(EthBloom.empty().`with`(called)) shouldEqual true
+    new BlockInfo(1, List(receipt).asJava).getBloom shouldEqual receipt.getBloom
+
+    val reported = EthBloom.empty().`with`(topic)
+    new TransactionReceipt(EthHash.of("0x01"), EthAddress.of("0x01"), token, EthAddress.empty(), "", EthData.empty(), true, events.asJava, null, reported).getBloom shouldEqual reported
+  }
+
+  it should "not be computed when the emitter of an event is unknown" in {
+    val event = new EventInfo(EthData.of(Array.fill[Byte](32)(1)), EthData.empty(), Collections.emptyList[EthData]())
+    val receipt = new TransactionReceipt(EthHash.of("0x01"), EthAddress.of("0x01"), EthAddress.of("0x1234"), EthAddress.empty(), "", EthData.empty(), true, List(event).asJava)
+    receipt.getBloom shouldBe null
+    new BlockInfo(1, List(receipt).asJava).getBloom shouldBe null
+  }
+}
@@ -0,0 +1,79 @@
+package org.adridadou.ethereum.propeller.values
+
+import java.math.BigInteger
+
+import org.scalacheck.{Arbitrary, Gen}
+import org.scalacheck.Prop._
+import org.scalatest.check.Checkers
+import org.scalatest.{FlatSpec, Matchers}
+
+/**
+  * This code is released under Apache 2 license
+  */
+class UInt256Test extends FlatSpec with Matchers with Checkers {
+  private val max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE)
+
+  private implicit val arbitraryUInt256: Arbitrary[BigInteger] = Arbitrary(Gen.oneOf(
+    Gen.choose(0, 256).flatMap(bits => Gen.listOfN(32, Gen.choose(Byte.MinValue, Byte.MaxValue))
+      .map(bytes => new BigInteger(1, bytes.toArray).shiftRight(256 - bits))),
+    Gen.choose(0L, Long.MaxValue).map(BigInteger.valueOf),
+    Gen.choose(0, 3).map(n => max.subtract(BigInteger.valueOf(n)))))
+
+  "UInt256" should "convert from and to BigInteger and ABI words" in {
+    check(forAll { x: BigInteger =>
+      val value = UInt256.of(x)
+      value.toBigInteger shouldEqual x
+      value.toWord shouldEqual EthData.of(x).word(0)
+      UInt256.fromWord(value.toWord, 0) shouldEqual value
+      value.bitLength shouldEqual x.bitLength
+      true
+    })
+  }
+
+  it should "compare like BigInteger" in {
+    check(forAll { (x: BigInteger, y: BigInteger) =>
+      Integer.signum(UInt256.of(x).compareTo(UInt256.of(y))) shouldEqual x.compareTo(y)
+      true
+    })
+  }
+
+  it should "add, subtract and multiply like BigInteger or throw when out of range" in {
+    check(forAll { (x: BigInteger, y: BigInteger) =>
+      sameResult(x.add(y), () => UInt256.of(x).add(UInt256.of(y)))
+      sameResult(x.subtract(y), () => UInt256.of(x).subtract(UInt256.of(y)))
+      sameResult(x.multiply(y), () => UInt256.of(x).multiply(UInt256.of(y)))
+      sameResult(x.add(y), () => new MutableUInt256(UInt256.of(x)).add(UInt256.of(y)).toUInt256)
+      true
+    })
+  }
+
+  it should "divide like BigInteger" in {
+    check(forAll { (x: BigInteger, y: BigInteger, z: BigInteger) =>
+      if (y.signum() != 0) {
+        UInt256.of(x).divide(UInt256.of(y)).toBigInteger shouldEqual x.divide(y)
+        UInt256.of(x).mod(UInt256.of(y)).toBigInteger shouldEqual x.mod(y)
+      }
+      if (z.signum() != 0) {
+        sameResult(x.multiply(y).divide(z), () => UInt256.of(x).mulDiv(UInt256.of(y), UInt256.of(z)))
+      }
+      true
+    })
+  }
+
+  it should "keep EthValue arithmetic unchanged" in {
+    check(forAll { (x: BigInteger, y: BigInteger) =>
+      EthValue.wei(x).plus(EthValue.wei(y)).inWei shouldEqual x.add(y)
+      EthValue.wei(x).minus(EthValue.wei(y)).inWei shouldEqual x.subtract(y)
+      EthValue.wei(x).minus(EthValue.wei(y)).plus(EthValue.wei(y)) shouldEqual EthValue.wei(x)
+      true
+    })
+  }
+
+  private def sameResult(expected: BigInteger, result: () => UInt256): Unit = {
+    if (expected.signum() < 0 || expected.compareTo(max) > 0) {
+      an[ArithmeticException] should be thrownBy result()
+    } else {
+      result().toBigInteger shouldEqual expected
+    }
+  }
+}